@@ -0,0 +1,39 @@
+package storage.com.box.configuration;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
+import storage.com.box.service.AuthBenchmarkFixture;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bearer token decoding done by the resource server for requests that miss the
+ * authentication cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DecodeBenchmark {
+
+    @Param({"HS256", "ES256"})
+    String algorithm;
+
+    CustomSecurityConfig decoder;
+    String accessToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        AuthBenchmarkFixture fixture = new AuthBenchmarkFixture(algorithm, new BCryptPasswordEncoder(4));
+
+        decoder = new CustomSecurityConfig();
+        ReflectionTestUtils.setField(decoder, "authenticationService", fixture.authenticationService);
+        accessToken = fixture.accessToken();
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return decoder.decode(accessToken);
+    }
+}
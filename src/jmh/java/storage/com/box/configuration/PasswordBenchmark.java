@@ -0,0 +1,48 @@
+package storage.com.box.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt {@code matches} on the calling thread and through the bounded hashing
+ * pool, at the production minimum cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PasswordBenchmark {
+
+    @Param({"10"})
+    int strength;
+
+    BCryptPasswordEncoder bcrypt;
+    BoundedPasswordEncoder bounded;
+    String hash;
+
+    @Setup
+    public void setUp() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        // queue large enough that benchmark threads are never rejected
+        bounded = new BoundedPasswordEncoder(bcrypt, Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                1024, 1, new SimpleMeterRegistry());
+        hash = bcrypt.encode("password");
+    }
+
+    @TearDown
+    public void tearDown() {
+        bounded.shutdown();
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return bcrypt.matches("password", hash);
+    }
+
+    @Benchmark
+    public boolean matchesBounded() {
+        return bounded.matches("password", hash);
+    }
+}
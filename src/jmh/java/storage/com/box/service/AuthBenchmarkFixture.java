@@ -0,0 +1,115 @@
+package storage.com.box.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import storage.com.box.entity.Permission;
+import storage.com.box.entity.Role;
+import storage.com.box.entity.User;
+import storage.com.box.repository.InvalidTokenRepository;
+import storage.com.box.repository.RoleRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Wires the authentication services by hand, without a Spring context or a
+ * database: repositories are stub-only Mockito mocks (no invocation recording).
+ * Most are only hit while the fixture is built, but {@link TokenEpochCache} reloads
+ * a user's epoch through {@code userRepository} every 30 s, so measurements longer
+ * than that include an occasional mock call (it answers an empty epoch).
+ */
+public class AuthBenchmarkFixture {
+
+    public static final String SECRET = "12345678901234567890123456789012";
+
+    // role -> number of permissions, roughly what an admin account carries
+    static final String[] ROLES = {"USER", "MANAGER", "ADMIN"};
+    static final int[] PERMISSIONS_PER_ROLE = {8, 16, 24};
+
+    public final AuthenticationService authenticationService;
+    public final TokenIssuer tokenIssuer;
+    public final RoleScopeSnapshot roleScopeSnapshot;
+    public final User user;
+
+    public AuthBenchmarkFixture(String signingAlgorithm, PasswordEncoder passwordEncoder) throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+        InvalidTokenRepository invalidTokenRepository = mock(InvalidTokenRepository.class, withSettings().stubOnly());
+        RoleRepository roleRepository = mock(RoleRepository.class, withSettings().stubOnly());
+
+        List<Role> roles = roles();
+        when(roleRepository.findAllWithPermissions()).thenReturn(roles);
+
+        SigningKeys signingKeys = new SigningKeys();
+        ReflectionTestUtils.setField(signingKeys, "algorithmName", signingAlgorithm);
+        ReflectionTestUtils.setField(signingKeys, "secret", SECRET);
+        ReflectionTestUtils.setField(signingKeys, "keyFile", "");
+        ReflectionTestUtils.setField(signingKeys, "refreshTokenExpiration", 7200L);
+        signingKeys.init();
+
+        tokenIssuer = new TokenIssuer();
+        ReflectionTestUtils.setField(tokenIssuer, "signingKeys", signingKeys);
+        ReflectionTestUtils.setField(tokenIssuer, "accessTokenExpiration", 3600L);
+        ReflectionTestUtils.setField(tokenIssuer, "refreshTokenExpiration", 7200L);
+
+        roleScopeSnapshot = new RoleScopeSnapshot(roleRepository);
+        roleScopeSnapshot.load();
+
+        TokenRevocationStore tokenRevocationStore = new TokenRevocationStore(invalidTokenRepository, meterRegistry, "");
+        tokenRevocationStore.load();
+
+        authenticationService = new AuthenticationService(
+                passwordEncoder,
+                userRepository,
+                invalidTokenRepository,
+                tokenRevocationStore,
+                new AuthenticationCache(10_000, meterRegistry),
+                tokenIssuer,
+                roleScopeSnapshot,
+                new LoginThrottle(false, 0, 0, 60, 10_000, meterRegistry),
+                new TokenEpochCache(userRepository, 30, 10_000, meterRegistry),
+                signingKeys,
+                new TokenVerificationPool(0, 64, 64, meterRegistry));
+
+        user = User.builder()
+                .userId("benchmark-user-id")
+                .userName("benchmark user")
+                .password(new BCryptPasswordEncoder(4).encode("password"))
+                .email("benchmark@example.com")
+                .roles(new HashSet<>(roles))
+                .build();
+    }
+
+    public String accessToken() {
+        return authenticationService.generateToken(user, false);
+    }
+
+    static List<Role> roles() {
+        List<Role> roles = new ArrayList<>();
+
+        for (int i = 0; i < ROLES.length; i++) {
+            Set<Permission> permissions = new HashSet<>();
+
+            for (int p = 0; p < PERMISSIONS_PER_ROLE[i]; p++)
+                permissions.add(Permission.builder()
+                        .name(ROLES[i] + "_PERMISSION_" + p)
+                        .build());
+
+            roles.add(Role.builder()
+                    .name(ROLES[i])
+                    .permissions(permissions)
+                    .build());
+        }
+
+        return roles;
+    }
+}
@@ -0,0 +1,150 @@
+package storage.com.box.service;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.entity.Fee;
+import storage.com.box.enums.FeeGroupBy;
+import storage.com.box.repository.FeeRepository;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category totals over a date range, answered from {@link FeeColumns} and from the
+ * database: as a JPQL aggregate and by loading the entities (what clients did before).
+ * The JPA side runs against in-memory H2, so it is a lower bound of a real database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FeeAnalyticsBenchmark {
+
+    static final String USER_ID = "benchmark-user";
+    static final String[] CATEGORIES = {"Food", "Home", "Travel", "Health", "Shopping", "Bills", "Fun", "Other"};
+
+    static final String AGGREGATE_BY_CATEGORY = "select f.categoryName, count(f), sum(f.feePrice) from Fee f " +
+            "where f.userId = :userId and f.date >= :from and f.date < :to group by f.categoryName";
+
+    @Param({"1000", "20000"})
+    int fees;
+
+    ConfigurableApplicationContext context;
+    EntityManager entityManager;
+    FeeRepository feeRepository;
+    TransactionTemplate readOnlyTemplate;
+
+    FeeColumns columns;
+
+    LocalDate from = LocalDate.of(2025, 4, 1);
+    LocalDate to = LocalDate.of(2025, 9, 30);
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaOnly.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:analytics;MODE=MYSQL",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=sa",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+
+        entityManager = context.getBean(EntityManager.class);
+        feeRepository = context.getBean(FeeRepository.class);
+        readOnlyTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTemplate.setReadOnly(true);
+
+        Random random = new Random(42);
+        List<Fee> batch = new ArrayList<>();
+        List<FeeColumns.Row> rows = new ArrayList<>();
+
+        // as many rows of other users, so the user_id index has to do its job
+        for (int i = 0; i < fees * 2; i++) {
+            Fee fee = Fee.builder()
+                    .feeName("fee " + i)
+                    .feePrice(random.nextInt(100_000) / 100.0)
+                    .date(Date.from(LocalDate.of(2024, 10, 1).plusDays(random.nextInt(365))
+                            .atStartOfDay(ZoneOffset.UTC).toInstant()))
+                    .categoryName(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .userId(i % 2 == 0 ? USER_ID : "user-" + (i % 97))
+                    .build();
+            batch.add(fee);
+
+            if (batch.size() == 1000 || i == fees * 2 - 1) {
+                for (Fee saved : feeRepository.saveAll(batch)) {
+                    if (USER_ID.equals(saved.getUserId()))
+                        rows.add(new FeeColumns.Row(saved.getFeeId(), FeeColumns.epochDayOf(saved.getDate()),
+                                FeeColumns.minorUnits(saved.getFeePrice()), saved.getCategoryName()));
+                }
+                batch.clear();
+            }
+        }
+
+        columns = new FeeColumns(rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public FeeColumns.Aggregate columnsByCategory() {
+        return columns.aggregate((int) from.toEpochDay(), (int) to.toEpochDay(), null, FeeGroupBy.CATEGORY);
+    }
+
+    @Benchmark
+    public FeeColumns.Aggregate columnsByMonth() {
+        return columns.aggregate((int) from.toEpochDay(), (int) to.toEpochDay(), null, FeeGroupBy.MONTH);
+    }
+
+    @Benchmark
+    public List<?> jpaAggregateByCategory() {
+        return readOnlyTemplate.execute(status -> entityManager.createQuery(AGGREGATE_BY_CATEGORY)
+                .setParameter("userId", USER_ID)
+                .setParameter("from", start(from))
+                .setParameter("to", start(to.plusDays(1)))
+                .getResultList());
+    }
+
+    @Benchmark
+    public Map<String, Double> jpaEntitiesByCategory() {
+        Date start = start(from);
+        Date end = start(to.plusDays(1));
+
+        return readOnlyTemplate.execute(status -> {
+            Map<String, Double> totals = new HashMap<>();
+
+            for (Fee fee : feeRepository.findByUserId(USER_ID)) {
+                if (fee.getDate() != null && !fee.getDate().before(start) && fee.getDate().before(end))
+                    totals.merge(fee.getCategoryName(), fee.getFeePrice(), Double::sum);
+            }
+
+            return totals;
+        });
+    }
+
+    static Date start(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan("storage.com.box.entity")
+    @EnableJpaRepositories("storage.com.box.repository")
+    static class JpaOnly {
+    }
+}
@@ -0,0 +1,49 @@
+package storage.com.box.service;
+
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuance and verification as done on every login and every request.
+ * Run with {@code -prof gc} (the profile default) for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TokenBenchmark {
+
+    @Param({"HS256", "ES256"})
+    String algorithm;
+
+    AuthBenchmarkFixture fixture;
+    String accessToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        fixture = new AuthBenchmarkFixture(algorithm, new BCryptPasswordEncoder(4));
+        accessToken = fixture.accessToken();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return fixture.authenticationService.generateToken(fixture.user, false);
+    }
+
+    @Benchmark
+    public TokenIssuer.TokenPair issueTokens() {
+        return fixture.authenticationService.issueTokens(fixture.user);
+    }
+
+    @Benchmark
+    public SignedJWT verifyToken() throws Exception {
+        return fixture.authenticationService.verifyToken(accessToken, "access");
+    }
+
+    @Benchmark
+    public String buildScope() {
+        return fixture.authenticationService.buildScope(fixture.user);
+    }
+}
@@ -0,0 +1,66 @@
+package storage.com.box.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Picks the BCrypt work factor for the hardware the app runs on.
+ * <p>
+ * A hash is timed at a cheap probe cost and extrapolated (each extra cost step
+ * doubles the work) to the highest cost that stays under the target latency.
+ */
+@Slf4j
+public final class BcryptCostCalibrator {
+
+    static final int PROBE_STRENGTH = 6;
+    static final int PROBE_ROUNDS = 3;
+
+    static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private BcryptCostCalibrator() {
+    }
+
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(PROBE_STRENGTH);
+
+        // first round warms the JIT, keep the fastest of the rest
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round <= PROBE_ROUNDS; round++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            long elapsed = System.nanoTime() - start;
+
+            if (round > 0)
+                best = Math.min(best, elapsed);
+        }
+
+        double probeMillis = Math.max(best / 1_000_000.0, 0.001);
+
+        int strength = PROBE_STRENGTH;
+        while (strength < maxStrength
+                && probeMillis * Math.pow(2, strength + 1 - PROBE_STRENGTH) <= targetMillis)
+            strength++;
+
+        strength = Math.max(minStrength, Math.min(maxStrength, strength));
+
+        log.info("bcrypt calibrated: cost {} (~{} ms per hash, target {} ms)", strength,
+                Math.round(probeMillis * Math.pow(2, strength - PROBE_STRENGTH)), targetMillis);
+
+        return strength;
+    }
+
+    /**
+     * Cost encoded in a BCrypt hash, or -1 when the value is not a BCrypt hash.
+     */
+    public static int costOf(String encodedPassword) {
+        if (encodedPassword == null)
+            return -1;
+
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,63 @@
+package storage.com.box.configuration;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import storage.com.box.service.AuthenticationCache;
+import storage.com.box.service.TokenEpochCache;
+
+/**
+ * Resource-server authentication manager that looks the bearer token up in the
+ * {@link AuthenticationCache} before running the decoder and the scope-to-authority
+ * conversion of the delegate provider. Cached entries are still checked against
+ * the user's session epoch.
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+
+    AuthenticationProvider delegate;
+    AuthenticationCache authenticationCache;
+    TokenEpochCache tokenEpochCache;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer))
+            return delegate.authenticate(authentication);
+
+        String token = bearer.getToken();
+
+        Authentication cached = authenticationCache.get(token);
+        if (cached != null) {
+            if (!isRevokedByEpoch(cached))
+                return cached;
+
+            // fall through: the delegate rejects it with the usual error
+            authenticationCache.invalidate(token);
+        }
+
+        Authentication result = delegate.authenticate(bearer);
+
+        if (result instanceof JwtAuthenticationToken jwtAuthentication)
+            authenticationCache.put(token, result, jwtAuthentication.getToken().getExpiresAt());
+
+        return result;
+    }
+
+    // a "log out everywhere" after the entry was cached
+    boolean isRevokedByEpoch(Authentication cached) {
+        if (!(cached instanceof JwtAuthenticationToken jwtAuthentication))
+            return false;
+
+        long epoch = TokenEpochCache.epochOf(jwtAuthentication.getToken().getClaim(TokenEpochCache.CLAIM));
+
+        return epoch < tokenEpochCache.current(jwtAuthentication.getName());
+    }
+}
@@ -1,61 +1,64 @@
 package storage.com.box.configuration;
 
 import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.SignedJWT;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
 import org.springframework.stereotype.Component;
-import storage.com.box.dto.request.IntrospectRequest;
 import storage.com.box.exception.AppException;
-import storage.com.box.exception.ErrorCode;
 import storage.com.box.service.AuthenticationService;
 
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
-import java.util.Objects;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Map;
 
+/**
+ * Decodes bearer tokens in a single pass: {@link AuthenticationService#verifyToken}
+ * parses and verifies the token once (signature, issuer, type, expiry, revocation)
+ * and the resulting claims are turned into a Spring {@link Jwt} directly.
+ */
 @Component
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class CustomSecurityConfig implements JwtDecoder {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
     @Autowired
     AuthenticationService authenticationService;
-    NimbusJwtDecoder nimbusJwtDecoder = null;
 
-    @Override
-    public Jwt decode(String jwtToken) {
+    // converts Nimbus Date claims (exp, iat, ...) to the Instant values Jwt expects
+    final Converter<Map<String, Object>, Map<String, Object>> claimSetConverter =
+            MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
 
-        try {
-            var response = authenticationService.introspect(IntrospectRequest.builder()
-                    .token(jwtToken)
-                    .build());
+    @Override
+    public Jwt decode(String jwtToken) throws JwtException {
 
-            if (!response.isValid()) throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
+        SignedJWT signedJWT;
 
-        } catch (JOSEException e) {
-            throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
+        try {
+            signedJWT = authenticationService.verifyToken(jwtToken, "access");
+        } catch (ParseException e) {
+            throw new BadJwtException("malformed token", e);
+        } catch (JOSEException | AppException e) {
+            throw new BadJwtException(e.getMessage(), e);
         }
 
-        if (Objects.isNull(nimbusJwtDecoder)) {
-
-            SecretKey secretKey = new SecretKeySpec(jwtSecret.getBytes(), "HmacSHA256");
+        try {
+            Map<String, Object> headers = signedJWT.getHeader().toJSONObject();
+            Map<String, Object> claims = claimSetConverter.convert(signedJWT.getJWTClaimsSet().getClaims());
 
-            nimbusJwtDecoder = NimbusJwtDecoder
-                    .withSecretKey(secretKey)
-                    .macAlgorithm(MacAlgorithm.HS256)
+            return Jwt.withTokenValue(jwtToken)
+                    .headers(h -> h.putAll(headers))
+                    .claims(c -> c.putAll(claims))
                     .build();
-
+        } catch (ParseException e) {
+            throw new BadJwtException("malformed token", e);
         }
-
-        return nimbusJwtDecoder.decode(jwtToken);
     }
 
 }
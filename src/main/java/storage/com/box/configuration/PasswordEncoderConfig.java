@@ -0,0 +1,55 @@
+package storage.com.box.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${security.password.threads:0}") int threads,
+            @Value("${security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${security.password.bcrypt-strength:0}") int strength,
+            @Value("${security.password.target-hash-millis:250}") long targetHashMillis,
+            @Value("${security.password.min-strength:10}") int minStrength,
+            @Value("${security.password.max-strength:14}") int maxStrength) {
+
+        // default: one core less than the machine so request threads keep some CPU
+        if (threads <= 0)
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        // 0 = measure this machine against the target latency
+        if (strength <= 0)
+            strength = BcryptCostCalibrator.calibrate(targetHashMillis, minStrength, maxStrength);
+
+        return new BoundedPasswordEncoder(new CalibratedBCryptPasswordEncoder(strength),
+                threads, queueCapacity, retryAfterSeconds, meterRegistry);
+    }
+
+    /**
+     * Flags every stored hash whose cost differs from the configured one (not only
+     * weaker ones), so authenticate re-hashes passwords in both directions.
+     */
+    static class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        final int strength;
+
+        CalibratedBCryptPasswordEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+
+        @Override
+        protected boolean upgradeEncodingNonNull(String encodedPassword) {
+            int cost = BcryptCostCalibrator.costOf(encodedPassword);
+
+            return cost > 0 && cost != strength;
+        }
+    }
+}
@@ -4,12 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.server.header.CrossOriginResourcePolicyServerHttpHeadersWriter;
@@ -19,18 +20,27 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 import storage.com.box.enums.Role;
+import storage.com.box.service.AuthenticationCache;
+import storage.com.box.service.TokenEpochCache;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
-    private final String[] PUBLIC_ENDPOINTS = {"/users", "/auth/login", "/auth/introspect", "/auth/refresh"};
+    private final String[] PUBLIC_ENDPOINTS = {"/users", "/auth/login", "/auth/introspect", "/auth/introspect/batch", "/auth/refresh"};
+    private final String[] PUBLIC_GET_ENDPOINTS = {"/auth/keys"};
     private final String[] ADMIN_ENDPOINTS = {"/users", "/auth"};
 
     @Autowired
     private CustomSecurityConfig customSecurityConfig;
 
+    @Autowired
+    private AuthenticationCache authenticationCache;
+
+    @Autowired
+    private TokenEpochCache tokenEpochCache;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
 
@@ -40,20 +50,28 @@ public class SecurityConfig {
                 .authorizeHttpRequests(requests -> requests
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers(HttpMethod.POST, PUBLIC_ENDPOINTS).permitAll()
+                        .requestMatchers(HttpMethod.GET, PUBLIC_GET_ENDPOINTS).permitAll()
                         .requestMatchers(HttpMethod.GET, ADMIN_ENDPOINTS).hasRole(Role.ADMIN.name())
                         .anyRequest().authenticated()
                 )
                 .oauth2ResourceServer(oauth2 ->
                         oauth2.jwt(
                                 jwtConfigurer ->
-                                        jwtConfigurer.decoder(customSecurityConfig)
-                                                .jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                                        jwtConfigurer.authenticationManager(jwtAuthenticationManager()))
                                 .authenticationEntryPoint(new JwtAuthenticationEntryPoint())
                 );
 
         return http.build();
     }
 
+    // decoder + converter run once per token, later requests are served from the cache
+    AuthenticationManager jwtAuthenticationManager() {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(customSecurityConfig);
+        provider.setJwtAuthenticationConverter(jwtAuthenticationConverter());
+
+        return new CachingJwtAuthenticationManager(provider, authenticationCache, tokenEpochCache);
+    }
+
     @Bean
     JwtAuthenticationConverter jwtAuthenticationConverter (){
         JwtGrantedAuthoritiesConverter jwtGrantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
@@ -82,9 +100,4 @@ public class SecurityConfig {
 
         return source;
     }
-
-    @Bean
-    public BCryptPasswordEncoder PasswordEncoder() {
-        return new BCryptPasswordEncoder(10);
-    }
 }
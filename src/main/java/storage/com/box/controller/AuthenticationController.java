@@ -1,24 +1,33 @@
 package storage.com.box.controller;
 
 import com.nimbusds.jose.JOSEException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import storage.com.box.dto.request.AuthenticationRequest;
+import storage.com.box.dto.request.BatchIntrospectRequest;
 import storage.com.box.dto.request.IntrospectRequest;
 import storage.com.box.dto.request.RefreshTokenRequest;
 import storage.com.box.dto.response.ApiResponse;
 import storage.com.box.dto.response.AuthenticationResponse;
 import storage.com.box.dto.response.IntrospectResponse;
+import storage.com.box.dto.response.TokenIntrospectionResponse;
 import storage.com.box.service.AuthenticationService;
 
 import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @AllArgsConstructor
@@ -30,9 +39,10 @@ public class AuthenticationController {
     AuthenticationService authenticationService;
 
     @PostMapping("/login")
-    public ApiResponse<AuthenticationResponse> authenticateUser(@Valid @RequestBody AuthenticationRequest request) {
+    public ApiResponse<AuthenticationResponse> authenticateUser(@Valid @RequestBody AuthenticationRequest request,
+                                                                HttpServletRequest httpRequest) {
         return ApiResponse.<AuthenticationResponse>builder()
-                .result(authenticationService.authenticate(request))
+                .result(authenticationService.authenticate(request, httpRequest.getRemoteAddr()))
                 .build();
     }
 
@@ -44,6 +54,13 @@ public class AuthenticationController {
                 .build();
     }
 
+    @PostMapping("/logout-all")
+    public ApiResponse<Void> logoutAll() {
+        authenticationService.logoutAll();
+        return ApiResponse.<Void>builder()
+                .build();
+    }
+
     @PostMapping("/introspect")
     public ApiResponse<IntrospectResponse> introspect(@RequestBody IntrospectRequest request)
             throws JOSEException {
@@ -52,6 +69,21 @@ public class AuthenticationController {
                 .build();
     }
 
+    @PostMapping("/introspect/batch")
+    public ApiResponse<List<TokenIntrospectionResponse>> introspectBatch(@RequestBody BatchIntrospectRequest request) {
+        return ApiResponse.<List<TokenIntrospectionResponse>>builder()
+                .result(authenticationService.introspectBatch(request))
+                .build();
+    }
+
+    // public keys for services that verify tokens locally
+    @GetMapping("/keys")
+    public ResponseEntity<Map<String, Object>> keys() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(authenticationService.publicKeys());
+    }
+
     @PostMapping("/refresh")
     public ApiResponse<AuthenticationResponse> refresh(@RequestBody RefreshTokenRequest request)
             throws JOSEException, ParseException {
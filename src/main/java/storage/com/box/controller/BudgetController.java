@@ -0,0 +1,43 @@
+package storage.com.box.controller;
+
+import jakarta.validation.Valid;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+import storage.com.box.dto.request.BudgetRequest;
+import storage.com.box.dto.response.ApiResponse;
+import storage.com.box.dto.response.BudgetResponse;
+import storage.com.box.service.FeeBudgetService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/budget")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class BudgetController {
+
+    FeeBudgetService feeBudgetService;
+
+    @GetMapping
+    public ApiResponse<List<BudgetResponse>> getBudgets(@RequestParam(required = false) String month) {
+        return ApiResponse.<List<BudgetResponse>>builder()
+                .result(feeBudgetService.getBudgets(month))
+                .build();
+    }
+
+    @PutMapping
+    public ApiResponse<BudgetResponse> setBudget(@RequestBody @Valid BudgetRequest request) {
+        return ApiResponse.<BudgetResponse>builder()
+                .result(feeBudgetService.setBudget(request))
+                .build();
+    }
+
+    @DeleteMapping
+    public ApiResponse<Void> deleteBudget(@RequestParam(required = false) String category) {
+        feeBudgetService.deleteBudget(category);
+        return ApiResponse.<Void>builder()
+                .build();
+    }
+}
@@ -4,13 +4,34 @@ import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import storage.com.box.dto.request.FeeAnalyticsRequest;
+import storage.com.box.dto.request.FeeBatchRequest;
 import storage.com.box.dto.request.FeeCreationRequest;
+import storage.com.box.dto.request.FeeSearchRequest;
 import storage.com.box.dto.request.FeeUpdateRequest;
 import storage.com.box.dto.response.ApiResponse;
+import storage.com.box.dto.response.FeeAnalyticsResponse;
+import storage.com.box.dto.response.FeeBatchResponse;
 import storage.com.box.dto.response.FeeCreationResponse;
+import storage.com.box.dto.response.FeeImportResponse;
+import storage.com.box.dto.response.FeeMonthlySummaryResponse;
+import storage.com.box.dto.response.SlicePage;
+import storage.com.box.enums.ExportFormat;
+import storage.com.box.service.FeeAnalyticsService;
+import storage.com.box.service.FeeBatchService;
+import storage.com.box.service.FeeExportService;
+import storage.com.box.service.FeeImportService;
 import storage.com.box.service.FeeService;
+import storage.com.box.service.FeeSummaryService;
+import storage.com.box.service.FeeTextSearchService;
 
+import java.io.InputStream;
 import java.util.List;
 
 
@@ -22,6 +43,12 @@ import java.util.List;
 public class FeeController {
 
     FeeService feeService;
+    FeeExportService feeExportService;
+    FeeImportService feeImportService;
+    FeeBatchService feeBatchService;
+    FeeSummaryService feeSummaryService;
+    FeeTextSearchService feeTextSearchService;
+    FeeAnalyticsService feeAnalyticsService;
 
     @PostMapping
     public ApiResponse<FeeCreationResponse> createFee(@RequestBody FeeCreationRequest request) {
@@ -30,6 +57,27 @@ public class FeeController {
                 .build();
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ApiResponse<FeeImportResponse> importCsv(InputStream body) {
+        return ApiResponse.<FeeImportResponse>builder()
+                .result(feeImportService.importCsv(body))
+                .build();
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ApiResponse<FeeImportResponse> importJson(InputStream body) {
+        return ApiResponse.<FeeImportResponse>builder()
+                .result(feeImportService.importJson(body))
+                .build();
+    }
+
+    @PostMapping("/batch")
+    public ApiResponse<FeeBatchResponse> applyBatch(@RequestBody FeeBatchRequest request) {
+        return ApiResponse.<FeeBatchResponse>builder()
+                .result(feeBatchService.apply(request.getOperations()))
+                .build();
+    }
+
     @PutMapping("/{feeId}")
     public ApiResponse<FeeCreationResponse> createFeeId(@PathVariable String feeId
             , @RequestBody FeeUpdateRequest request) {
@@ -44,6 +92,19 @@ public class FeeController {
         return ApiResponse.<Void>builder().build();
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportFees(@RequestParam(defaultValue = "csv") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("fees." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(feeExportService.export(exportFormat));
+    }
+
     @GetMapping("/{feeId}")
     public ApiResponse<FeeCreationResponse> getFee(@PathVariable String feeId) {
         return ApiResponse.<FeeCreationResponse>builder()
@@ -51,10 +112,44 @@ public class FeeController {
                 .build();
     }
 
+    @GetMapping("/summary")
+    public ApiResponse<List<FeeMonthlySummaryResponse>> getSummary(@RequestParam(required = false) String from,
+                                                                   @RequestParam(required = false) String to) {
+        return ApiResponse.<List<FeeMonthlySummaryResponse>>builder()
+                .result(feeSummaryService.getSummary(from, to))
+                .build();
+    }
+
+    @GetMapping("/search")
+    public ApiResponse<SlicePage<FeeCreationResponse>> searchFees(@ModelAttribute FeeSearchRequest request) {
+        return ApiResponse.<SlicePage<FeeCreationResponse>>builder()
+                .result(feeService.searchFees(request))
+                .build();
+    }
+
+    @GetMapping("/search/text")
+    public ApiResponse<List<FeeCreationResponse>> searchFeesText(@RequestParam String q,
+                                                                 @RequestParam(required = false) Integer limit) {
+        return ApiResponse.<List<FeeCreationResponse>>builder()
+                .result(feeTextSearchService.search(q, limit))
+                .build();
+    }
+
+    @GetMapping("/analytics")
+    public ApiResponse<FeeAnalyticsResponse> analyze(@ModelAttribute FeeAnalyticsRequest request) {
+        return ApiResponse.<FeeAnalyticsResponse>builder()
+                .result(feeAnalyticsService.analyze(request))
+                .build();
+    }
+
     @GetMapping("/userFees")
-    public ApiResponse<List<FeeCreationResponse>> getUserFees() {
+    public ApiResponse<List<FeeCreationResponse>> getUserFees(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        var page = feeService.getUserFee(cursor, size);
+
         return ApiResponse.<List<FeeCreationResponse>>builder()
-                .result(feeService.getUserFee())
+                .result(page.getItems())
+                .nextCursor(page.getNextCursor())
                 .build();
     }
 }
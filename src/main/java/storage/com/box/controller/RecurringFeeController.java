@@ -0,0 +1,42 @@
+package storage.com.box.controller;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+import storage.com.box.dto.request.RecurringFeeRequest;
+import storage.com.box.dto.response.ApiResponse;
+import storage.com.box.dto.response.RecurringFeeResponse;
+import storage.com.box.service.RecurringFeeService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/fee/recurring")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RecurringFeeController {
+
+    RecurringFeeService recurringFeeService;
+
+    @PostMapping
+    public ApiResponse<RecurringFeeResponse> createRecurringFee(@RequestBody RecurringFeeRequest request) {
+        return ApiResponse.<RecurringFeeResponse>builder()
+                .result(recurringFeeService.createRecurringFee(request))
+                .build();
+    }
+
+    @GetMapping
+    public ApiResponse<List<RecurringFeeResponse>> getRecurringFees() {
+        return ApiResponse.<List<RecurringFeeResponse>>builder()
+                .result(recurringFeeService.getRecurringFees())
+                .build();
+    }
+
+    @DeleteMapping("/{recurringFeeId}")
+    public ApiResponse<Void> deleteRecurringFee(@PathVariable String recurringFeeId) {
+        recurringFeeService.deleteRecurringFee(recurringFeeId);
+        return ApiResponse.<Void>builder()
+                .build();
+    }
+}
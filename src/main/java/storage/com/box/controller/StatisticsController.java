@@ -0,0 +1,39 @@
+package storage.com.box.controller;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.web.bind.annotation.*;
+import storage.com.box.dto.response.ApiResponse;
+import storage.com.box.dto.response.StatisticsJobResponse;
+import storage.com.box.service.FeeStatisticsService;
+
+@RestController
+@RequestMapping("/statistics")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class StatisticsController {
+
+    FeeStatisticsService feeStatisticsService;
+
+    @PostMapping("/jobs")
+    public ApiResponse<StatisticsJobResponse> startJob() {
+        return ApiResponse.<StatisticsJobResponse>builder()
+                .result(feeStatisticsService.start())
+                .build();
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ApiResponse<StatisticsJobResponse> getJob(@PathVariable String jobId) {
+        return ApiResponse.<StatisticsJobResponse>builder()
+                .result(feeStatisticsService.getJob(jobId))
+                .build();
+    }
+
+    @DeleteMapping("/jobs/{jobId}")
+    public ApiResponse<StatisticsJobResponse> cancelJob(@PathVariable String jobId) {
+        return ApiResponse.<StatisticsJobResponse>builder()
+                .result(feeStatisticsService.cancel(jobId))
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package storage.com.box.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BudgetRequest {
+
+    // null for fees without a category
+    String categoryName;
+
+    @NotNull(message = "INVALID_BUDGET")
+    @Positive(message = "INVALID_BUDGET")
+    Double amount;
+}
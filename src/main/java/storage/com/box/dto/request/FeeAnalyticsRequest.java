@@ -0,0 +1,31 @@
+package storage.com.box.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FeeAnalyticsRequest {
+
+    // inclusive UTC days
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate to;
+
+    List<String> category;
+
+    // none, category (default), month or day
+    String groupBy;
+
+    // only the N groups with the largest totals
+    Integer top;
+}
@@ -0,0 +1,36 @@
+package storage.com.box.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import storage.com.box.enums.FeeOperationType;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FeeBatchRequest {
+
+    List<FeeOperation> operations;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class FeeOperation {
+
+        FeeOperationType type;
+
+        // UPDATE and DELETE
+        String feeId;
+
+        // CREATE
+        FeeCreationRequest create;
+
+        // UPDATE
+        FeeUpdateRequest update;
+    }
+}
@@ -0,0 +1,42 @@
+package storage.com.box.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FeeSearchRequest {
+
+    // inclusive UTC days
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    LocalDate to;
+
+    List<String> category;
+
+    Double minPrice;
+
+    Double maxPrice;
+
+    // substring of the name or the description
+    String q;
+
+    // date (default) or amount
+    String sort;
+
+    // desc (default) or asc
+    String direction;
+
+    Integer page;
+
+    Integer size;
+}
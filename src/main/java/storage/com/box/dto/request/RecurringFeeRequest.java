@@ -0,0 +1,26 @@
+package storage.com.box.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RecurringFeeRequest {
+
+    String feeName;
+    double feePrice;
+    String feeDescription;
+    String categoryName;
+
+    // e.g. "0 0 9 1 * *" for 09:00 UTC on the first of every month
+    String cron;
+
+    // first run is the first occurrence after startAt, now by default
+    Date startAt;
+    Date endAt;
+}
@@ -19,4 +19,7 @@ public class ApiResponse<T> {
     String message;
 
     T result;
+
+    // opaque position of the next page for cursor-paginated results
+    String nextCursor;
 }
@@ -0,0 +1,25 @@
+package storage.com.box.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BudgetResponse {
+
+    String categoryName;
+
+    double amount;
+
+    // yyyy-MM, UTC
+    String month;
+
+    double spent;
+
+    double remaining;
+
+    boolean overBudget;
+}
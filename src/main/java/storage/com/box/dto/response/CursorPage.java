@@ -0,0 +1,19 @@
+package storage.com.box.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CursorPage<T> {
+
+    List<T> items;
+
+    // null on the last page
+    String nextCursor;
+}
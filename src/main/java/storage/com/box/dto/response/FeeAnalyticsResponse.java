@@ -0,0 +1,37 @@
+package storage.com.box.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FeeAnalyticsResponse {
+
+    long count;
+
+    double total;
+
+    List<Group> groups;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Group {
+
+        // category name, yyyy-MM or yyyy-MM-dd; null for fees without one
+        String key;
+
+        long count;
+
+        double total;
+    }
+}
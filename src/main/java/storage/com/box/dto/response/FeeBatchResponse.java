@@ -0,0 +1,43 @@
+package storage.com.box.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import storage.com.box.enums.FeeOperationType;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FeeBatchResponse {
+
+    // false when any operation was rejected, nothing is written in that case
+    boolean applied;
+
+    List<FeeOperationResult> results;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class FeeOperationResult {
+
+        int index;
+
+        FeeOperationType type;
+
+        // error code and message of a rejected operation
+        Integer code;
+
+        String message;
+
+        // created or updated fee
+        FeeCreationResponse fee;
+    }
+}
@@ -1,5 +1,6 @@
 package storage.com.box.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -18,4 +19,8 @@ public class FeeCreationResponse {
     String feeDescription;
     Date date;
     String categoryName;
+
+    // set by create / update when the fee's category has a budget for its month
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Boolean overBudget;
 }
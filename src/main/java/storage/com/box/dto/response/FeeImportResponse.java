@@ -0,0 +1,39 @@
+package storage.com.box.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FeeImportResponse {
+
+    long imported;
+
+    long rejected;
+
+    long elapsedMillis;
+
+    double rowsPerSecond;
+
+    // capped at fee.import.max-reported-errors, rejected holds the full count
+    List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class RowError {
+
+        // 1-based data row, the CSV header is not counted
+        long row;
+
+        String message;
+    }
+}
@@ -0,0 +1,40 @@
+package storage.com.box.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FeeMonthlySummaryResponse {
+
+    // yyyy-MM, UTC
+    String month;
+
+    long count;
+
+    double total;
+
+    List<CategoryTotal> categories;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class CategoryTotal {
+
+        // null for fees without a category
+        String categoryName;
+
+        long count;
+
+        double total;
+    }
+}
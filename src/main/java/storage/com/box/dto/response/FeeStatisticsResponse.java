@@ -0,0 +1,46 @@
+package storage.com.box.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class FeeStatisticsResponse {
+
+    // users with at least one fee
+    long activeUsers;
+
+    long feeCount;
+
+    double total;
+
+    long maxFeesPerUser;
+
+    double averageFeesPerUser;
+
+    List<FeeAnalyticsResponse.Group> categories;
+
+    List<Bucket> feesPerUser;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Bucket {
+
+        // inclusive number of fees, max is null for the open last bucket
+        long min;
+
+        Long max;
+
+        long users;
+    }
+}
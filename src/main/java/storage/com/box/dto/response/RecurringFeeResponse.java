@@ -0,0 +1,25 @@
+package storage.com.box.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RecurringFeeResponse {
+
+    String recurringFeeId;
+    String feeName;
+    double feePrice;
+    String feeDescription;
+    String categoryName;
+    String cron;
+
+    // null once the schedule has ended
+    Date nextRun;
+    Date endAt;
+}
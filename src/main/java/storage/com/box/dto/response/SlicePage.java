@@ -0,0 +1,23 @@
+package storage.com.box.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SlicePage<T> {
+
+    List<T> items;
+
+    int page;
+
+    int size;
+
+    // no total count is computed, only whether another page follows
+    boolean hasNext;
+}
@@ -0,0 +1,34 @@
+package storage.com.box.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import storage.com.box.enums.StatisticsJobStatus;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class StatisticsJobResponse {
+
+    String jobId;
+
+    StatisticsJobStatus status;
+
+    int completedPartitions;
+
+    int totalPartitions;
+
+    Date startedAt;
+
+    Date finishedAt;
+
+    String error;
+
+    // only once the job has completed
+    FeeStatisticsResponse result;
+}
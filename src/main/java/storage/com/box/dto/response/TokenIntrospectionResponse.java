@@ -0,0 +1,25 @@
+package storage.com.box.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TokenIntrospectionResponse {
+
+    boolean valid;
+
+    String subject;
+
+    String scope;
+
+    // epoch seconds
+    Long expiresAt;
+
+    String jwtId;
+}
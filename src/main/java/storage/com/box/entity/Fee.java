@@ -13,7 +13,12 @@ import java.util.Date;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "fee")
+@Table(name = "fee",
+        indexes = {
+                // also serves (user_id, date) range filters
+                @Index(name = "idx_fee_user_date_id", columnList = "user_id, date, fee_id"),
+                @Index(name = "idx_fee_user_category", columnList = "user_id, category_name, date")
+        })
 public class Fee {
 
     @Id
@@ -0,0 +1,29 @@
+package storage.com.box.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Monthly spending limit of a user in one category, compared with the matching
+ * {@link FeeMonthlySummary} row, which serves as the month-to-date counter.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "fee_budget")
+public class FeeBudget {
+
+    @EmbeddedId
+    FeeBudgetId id;
+
+    @Column(name = "amount")
+    double amount;
+}
@@ -0,0 +1,26 @@
+package storage.com.box.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Embeddable
+public class FeeBudgetId implements Serializable {
+
+    @Column(name = "user_id")
+    String userId;
+
+    // empty for fees without a category, same key as fee_monthly_summary
+    @Column(name = "category_name")
+    String categoryName;
+}
@@ -0,0 +1,32 @@
+package storage.com.box.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Number and total of a user's fees per month and category, kept up to date by
+ * every fee write so dashboards never have to read the fees themselves.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "fee_monthly_summary")
+public class FeeMonthlySummary {
+
+    @EmbeddedId
+    FeeMonthlySummaryId id;
+
+    @Column(name = "fee_count")
+    long feeCount;
+
+    @Column(name = "total")
+    double total;
+}
@@ -0,0 +1,41 @@
+package storage.com.box.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Embeddable
+public class FeeMonthlySummaryId implements Serializable, Comparable<FeeMonthlySummaryId> {
+
+    static final Comparator<FeeMonthlySummaryId> ORDER = Comparator
+            .comparing(FeeMonthlySummaryId::getUserId)
+            .thenComparingInt(FeeMonthlySummaryId::getMonth)
+            .thenComparing(FeeMonthlySummaryId::getCategoryName);
+
+    @Column(name = "user_id")
+    String userId;
+
+    // UTC month of the fee date as yyyymm
+    @Column(name = "fee_month")
+    int month;
+
+    // empty for fees without a category, the column is part of the key
+    @Column(name = "category_name")
+    String categoryName;
+
+    @Override
+    public int compareTo(FeeMonthlySummaryId other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -1,8 +1,10 @@
 package storage.com.box.entity;
 
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
@@ -16,11 +18,19 @@ import java.util.Date;
 @AllArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Entity
-@Table(name = "invalidateToken")
+@Table(name = "invalidateToken",
+        indexes = {
+                @Index(name = "idx_invalidate_token_exp", columnList = "exp"),
+                @Index(name = "idx_invalidate_token_revoked_at", columnList = "revoked_at")
+        })
 public class InvalidToken {
 
     @Id
     String id;
 
     Date exp;
+
+    // lets a restart fetch only the rows added since the last revocation snapshot
+    @Column(name = "revoked_at")
+    Date revokedAt;
 }
@@ -0,0 +1,58 @@
+package storage.com.box.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+/**
+ * Template of a fee that repeats on a cron schedule (UTC). Occurrences up to now are
+ * materialized into {@link Fee} rows by the recurring fee generator, which moves
+ * {@code nextRun} past them; a template whose schedule has ended has no next run.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "recurring_fee",
+        indexes = {
+                @Index(name = "idx_recurring_fee_next_run", columnList = "next_run"),
+                @Index(name = "idx_recurring_fee_user", columnList = "user_id")
+        })
+public class RecurringFee {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "recurring_fee_id")
+    String recurringFeeId;
+
+    @Column(name = "user_id")
+    String userId;
+
+    @Column(name = "fee_name")
+    String feeName;
+
+    @Column(name = "fee_price")
+    double feePrice;
+
+    @Column(name = "fee_description")
+    String feeDescription;
+
+    @Column(name = "category_name")
+    String categoryName;
+
+    // six fields, second first, as understood by Spring's CronExpression
+    @Column(name = "cron")
+    String cron;
+
+    @Column(name = "next_run")
+    Date nextRun;
+
+    // inclusive, null for no end
+    @Column(name = "end_at")
+    Date endAt;
+}
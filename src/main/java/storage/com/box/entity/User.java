@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.Set;
 
@@ -34,6 +35,11 @@ public class User {
     @Column(name = "email")
     String email;
 
+    // bumped by "log out everywhere", tokens issued under an older value are rejected
+    @Column(name = "token_epoch")
+    @ColumnDefault("0")
+    Long tokenEpoch;
+
     @ManyToMany
     Set<Role> roles;
 
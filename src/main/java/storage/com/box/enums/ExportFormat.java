@@ -0,0 +1,30 @@
+package storage.com.box.enums;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+
+import java.util.Locale;
+
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson"),
+    ;
+
+    String contentType;
+    String extension;
+
+    public static ExportFormat of(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new AppException(ErrorCode.UNSUPPORTED_EXPORT_FORMAT);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package storage.com.box.enums;
+
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+
+import java.util.Locale;
+
+public enum FeeGroupBy {
+    NONE,
+    CATEGORY,
+    MONTH,
+    DAY,
+    ;
+
+    public static FeeGroupBy of(String groupBy) {
+        if (groupBy == null || groupBy.isBlank())
+            return CATEGORY;
+
+        try {
+            return valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_ANALYTICS_REQUEST);
+        }
+    }
+}
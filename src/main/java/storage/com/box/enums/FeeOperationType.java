@@ -0,0 +1,15 @@
+package storage.com.box.enums;
+
+/**
+ * Operations of {@code POST /fee/batch}; each one needs the role of the same name.
+ */
+public enum FeeOperationType {
+    CREATE,
+    UPDATE,
+    DELETE,
+    ;
+
+    public String authority() {
+        return "ROLE_" + name();
+    }
+}
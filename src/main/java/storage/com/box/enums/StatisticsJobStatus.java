@@ -0,0 +1,10 @@
+package storage.com.box.enums;
+
+public enum StatisticsJobStatus {
+    RUNNING,
+    // cancel requested, partitions already running have not stopped yet
+    CANCELLING,
+    COMPLETED,
+    CANCELLED,
+    FAILED,
+}
@@ -4,11 +4,19 @@ public class AppException extends RuntimeException {
 
     private ErrorCode errorCode;
 
+    // seconds sent back as Retry-After, 0 when the client should not retry
+    private long retryAfterSeconds;
+
     public AppException(ErrorCode errorCode) {
         super(errorCode.getMessage());
         this.errorCode = errorCode;
     }
 
+    public AppException(ErrorCode errorCode, long retryAfterSeconds) {
+        this(errorCode);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
     public ErrorCode getErrorCode() {
         return errorCode;
     }
@@ -16,4 +24,8 @@ public class AppException extends RuntimeException {
     public void setErrorCode(ErrorCode errorCode) {
         this.errorCode = errorCode;
     }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
 }
@@ -19,6 +19,24 @@ public enum ErrorCode {
     CATEGORY_EXISTS(1008, "category already exists", HttpStatus.BAD_REQUEST),
     FEE_NOT_FOUND(1009, "fee not found", HttpStatus.NOT_FOUND),
     CATEGORY_NOT_EXIST(1010, "category not found", HttpStatus.NOT_FOUND),
+    SERVICE_BUSY(1011, "server is busy, please retry later", HttpStatus.SERVICE_UNAVAILABLE),
+    TOO_MANY_LOGIN_ATTEMPTS(1012, "too many login attempts, please retry later", HttpStatus.TOO_MANY_REQUESTS),
+    INTROSPECT_BATCH_TOO_LARGE(1013, "too many tokens in one introspection batch", HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR(1014, "invalid page cursor", HttpStatus.BAD_REQUEST),
+    UNSUPPORTED_EXPORT_FORMAT(1015, "export format must be csv or ndjson", HttpStatus.BAD_REQUEST),
+    INVALID_IMPORT_FILE(1016, "import file must be a CSV with a fee_name,fee_price header or a JSON array", HttpStatus.BAD_REQUEST),
+    FEE_BATCH_TOO_LARGE(1017, "too many operations in one fee batch", HttpStatus.BAD_REQUEST),
+    INVALID_FEE_OPERATION(1018, "operation type or payload is missing", HttpStatus.BAD_REQUEST),
+    INVALID_SUMMARY_RANGE(1019, "summary range must be yyyy-MM months, from before to, at most 120 months", HttpStatus.BAD_REQUEST),
+    INVALID_SEARCH_REQUEST(1020, "sort must be date or amount, direction asc or desc, page not negative", HttpStatus.BAD_REQUEST),
+    INVALID_ANALYTICS_REQUEST(1021, "groupBy must be none, category, month or day, from before to, top positive", HttpStatus.BAD_REQUEST),
+
+    STATISTICS_JOB_NOT_FOUND(1022, "statistics job not found", HttpStatus.NOT_FOUND),
+    STATISTICS_JOB_LIMIT(1023, "too many statistics jobs running, wait or cancel one", HttpStatus.TOO_MANY_REQUESTS),
+    INVALID_BUDGET(1024, "budget amount must be positive", HttpStatus.BAD_REQUEST),
+    BUDGET_NOT_FOUND(1025, "budget not found", HttpStatus.NOT_FOUND),
+    INVALID_RECURRING_FEE(1026, "cron must be a valid six-field expression with runs at least an hour apart, end after start", HttpStatus.BAD_REQUEST),
+    RECURRING_FEE_NOT_FOUND(1027, "recurring fee not found", HttpStatus.NOT_FOUND),
 
     ;
 
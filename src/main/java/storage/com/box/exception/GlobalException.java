@@ -1,5 +1,6 @@
 package storage.com.box.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -20,9 +21,12 @@ public class GlobalException {
         response.setCode(errorCode.getCode());
         response.setMessage(errorCode.getMessage());
 
-        return ResponseEntity
-                .status(errorCode.getHttpStatus())
-                .body(response);
+        var builder = ResponseEntity.status(errorCode.getHttpStatus());
+
+        if (e.getRetryAfterSeconds() > 0)
+            builder.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+
+        return builder.body(response);
     }
 
     @ExceptionHandler(value = Exception.class)
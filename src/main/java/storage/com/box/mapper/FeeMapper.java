@@ -14,6 +14,7 @@ import storage.com.box.entity.Fee;
 @Mapper(componentModel = "spring")
 public interface FeeMapper {
 
+    @Mapping(target = "overBudget", ignore = true)
     FeeCreationResponse toFeeCreationResponse(Fee request);
 
     Fee toFee(FeeCreationRequest request);
@@ -0,0 +1,18 @@
+package storage.com.box.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import storage.com.box.dto.request.RecurringFeeRequest;
+import storage.com.box.dto.response.RecurringFeeResponse;
+import storage.com.box.entity.RecurringFee;
+
+@Mapper(componentModel = "spring")
+public interface RecurringFeeMapper {
+
+    @Mapping(target = "recurringFeeId", ignore = true)
+    @Mapping(target = "userId", ignore = true)
+    @Mapping(target = "nextRun", ignore = true)
+    RecurringFee toRecurringFee(RecurringFeeRequest request);
+
+    RecurringFeeResponse toRecurringFeeResponse(RecurringFee recurringFee);
+}
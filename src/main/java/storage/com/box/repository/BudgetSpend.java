@@ -0,0 +1,16 @@
+package storage.com.box.repository;
+
+/**
+ * A budget with the month-to-date total of its category, as read by
+ * {@link FeeBudgetRepository}. {@code spent} is null when the month has no fees yet.
+ */
+public record BudgetSpend(String categoryName, Double amount, Double spent) {
+
+    public double spentOrZero() {
+        return spent == null ? 0 : spent;
+    }
+
+    public boolean overBudget() {
+        return spentOrZero() > amount;
+    }
+}
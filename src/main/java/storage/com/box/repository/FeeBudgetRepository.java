@@ -0,0 +1,31 @@
+package storage.com.box.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import storage.com.box.entity.FeeBudget;
+import storage.com.box.entity.FeeBudgetId;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FeeBudgetRepository extends JpaRepository<FeeBudget, FeeBudgetId> {
+
+    // both sides are read by primary key, no fee is ever touched
+
+    @Query("select new storage.com.box.repository.BudgetSpend(b.id.categoryName, b.amount, s.total) " +
+            "from FeeBudget b left join FeeMonthlySummary s on s.id.userId = b.id.userId " +
+            "and s.id.categoryName = b.id.categoryName and s.id.month = :month " +
+            "where b.id.userId = :userId and b.id.categoryName = :categoryName")
+    Optional<BudgetSpend> findSpend(@Param("userId") String userId,
+                                    @Param("categoryName") String categoryName,
+                                    @Param("month") int month);
+
+    @Query("select new storage.com.box.repository.BudgetSpend(b.id.categoryName, b.amount, s.total) " +
+            "from FeeBudget b left join FeeMonthlySummary s on s.id.userId = b.id.userId " +
+            "and s.id.categoryName = b.id.categoryName and s.id.month = :month " +
+            "where b.id.userId = :userId order by b.id.categoryName")
+    List<BudgetSpend> findAllSpend(@Param("userId") String userId, @Param("month") int month);
+}
@@ -0,0 +1,28 @@
+package storage.com.box.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import storage.com.box.entity.FeeMonthlySummary;
+import storage.com.box.entity.FeeMonthlySummaryId;
+
+import java.util.List;
+
+@Repository
+public interface FeeMonthlySummaryRepository extends JpaRepository<FeeMonthlySummary, FeeMonthlySummaryId> {
+
+    @Modifying
+    @Query("update FeeMonthlySummary s set s.feeCount = s.feeCount + :count, s.total = s.total + :amount " +
+            "where s.id.userId = :userId and s.id.month = :month and s.id.categoryName = :categoryName")
+    int increment(@Param("userId") String userId, @Param("month") int month,
+                  @Param("categoryName") String categoryName,
+                  @Param("count") long count, @Param("amount") double amount);
+
+    @Query("select s from FeeMonthlySummary s where s.id.userId = :userId " +
+            "and s.id.month between :fromMonth and :toMonth and s.feeCount > 0 " +
+            "order by s.id.month, s.id.categoryName")
+    List<FeeMonthlySummary> findRange(@Param("userId") String userId,
+                                      @Param("fromMonth") int fromMonth, @Param("toMonth") int toMonth);
+}
@@ -1,13 +1,70 @@
 package storage.com.box.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import storage.com.box.entity.Fee;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface FeeRepository extends JpaRepository<Fee, String> {
+public interface FeeRepository extends JpaRepository<Fee, String>, JpaSpecificationExecutor<Fee> {
 
     List<Fee> findByUserId(String userId);
+
+    // read through a database cursor, the caller must hold a transaction and close the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select f from Fee f where f.userId = :userId order by f.date desc, f.feeId desc")
+    Stream<Fee> streamByUserId(@Param("userId") String userId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select f from Fee f where f.date is not null")
+    Stream<Fee> streamAllDated();
+
+    // one row per (user, category) of the user ids in [from, to), ordered by user; to == null is unbounded
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new storage.com.box.repository.UserCategoryTotal(f.userId, f.categoryName, count(f), sum(f.feePrice)) " +
+            "from Fee f where f.userId >= :from and (:to is null or f.userId < :to) " +
+            "group by f.userId, f.categoryName order by f.userId")
+    Stream<UserCategoryTotal> streamUserCategoryTotals(@Param("from") String from, @Param("to") String to);
+
+    @Query("select f.feeId from Fee f where f.feeId in :feeIds")
+    List<String> findExistingIds(@Param("feeIds") Collection<String> feeIds);
+
+    // keyset pages in (date desc, feeId desc) order, fees without a date last
+
+    @Query("select f from Fee f where f.userId = :userId and f.date is not null " +
+            "order by f.date desc, f.feeId desc")
+    List<Fee> findFirstDatedPage(@Param("userId") String userId, Limit limit);
+
+    @Query("select f from Fee f where f.userId = :userId and f.date is not null " +
+            "and (f.date < :date or (f.date = :date and f.feeId < :feeId)) " +
+            "order by f.date desc, f.feeId desc")
+    List<Fee> findDatedPageAfter(@Param("userId") String userId, @Param("date") Date date,
+                                 @Param("feeId") String feeId, Limit limit);
+
+    @Query("select f from Fee f where f.userId = :userId and f.date is null order by f.feeId desc")
+    List<Fee> findFirstUndatedPage(@Param("userId") String userId, Limit limit);
+
+    @Query("select f from Fee f where f.userId = :userId and f.date is null and f.feeId < :feeId " +
+            "order by f.feeId desc")
+    List<Fee> findUndatedPageAfter(@Param("userId") String userId, @Param("feeId") String feeId, Limit limit);
 }
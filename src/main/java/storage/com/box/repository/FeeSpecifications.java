@@ -0,0 +1,55 @@
+package storage.com.box.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import storage.com.box.entity.Fee;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Predicates of the fee search, combined by the caller and run as one SQL query.
+ */
+public final class FeeSpecifications {
+
+    private FeeSpecifications() {
+    }
+
+    public static Specification<Fee> ownedBy(String userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Fee> dateFrom(Date from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<Fee> dateBefore(Date before) {
+        return (root, query, cb) -> cb.lessThan(root.get("date"), before);
+    }
+
+    public static Specification<Fee> categoryIn(Collection<String> categoryNames) {
+        return (root, query, cb) -> root.get("categoryName").in(categoryNames);
+    }
+
+    public static Specification<Fee> priceAtLeast(double minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("feePrice"), minPrice);
+    }
+
+    public static Specification<Fee> priceAtMost(double maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("feePrice"), maxPrice);
+    }
+
+    /**
+     * Case-insensitive substring of the name or the description.
+     */
+    public static Specification<Fee> textContains(String text) {
+        String pattern = "%" + text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("feeName")), pattern, '\\'),
+                cb.like(cb.lower(root.get("feeDescription")), pattern, '\\'));
+    }
+}
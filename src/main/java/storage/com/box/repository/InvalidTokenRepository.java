@@ -1,10 +1,23 @@
 package storage.com.box.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import storage.com.box.entity.InvalidToken;
 
+import java.util.Date;
+import java.util.List;
+
 @Repository
 public interface InvalidTokenRepository extends JpaRepository<InvalidToken, String> {
     boolean existsById(String id);
+
+    List<InvalidToken> findByExpAfter(Date now);
+
+    List<InvalidToken> findByRevokedAtAfterAndExpAfter(Date since, Date now);
+
+    @Query("select t.id from InvalidToken t where t.exp < :now")
+    List<String> findExpiredIds(@Param("now") Date now, Pageable pageable);
 }
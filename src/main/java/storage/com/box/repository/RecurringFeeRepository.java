@@ -0,0 +1,27 @@
+package storage.com.box.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import storage.com.box.entity.RecurringFee;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface RecurringFeeRepository extends JpaRepository<RecurringFee, String> {
+
+    List<RecurringFee> findByUserIdOrderByFeeName(String userId);
+
+    // locked for the generator's transaction, rows locked by another instance are skipped
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select r from RecurringFee r where r.nextRun <= :now order by r.nextRun, r.recurringFeeId")
+    List<RecurringFee> findDue(@Param("now") Date now, Limit limit);
+}
@@ -1,6 +1,7 @@
 package storage.com.box.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import storage.com.box.entity.Role;
 
@@ -10,4 +11,7 @@ import java.util.Set;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, String> {
+
+    @Query("select distinct r from Role r left join fetch r.permissions")
+    List<Role> findAllWithPermissions();
 }
@@ -0,0 +1,8 @@
+package storage.com.box.repository;
+
+/**
+ * Number and sum of one user's fees in one category, as read by
+ * {@link FeeRepository#streamUserCategoryTotals}.
+ */
+public record UserCategoryTotal(String userId, String categoryName, Long feeCount, Double total) {
+}
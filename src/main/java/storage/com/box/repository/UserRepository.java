@@ -1,7 +1,11 @@
 package storage.com.box.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import storage.com.box.entity.User;
 
 import java.util.Optional;
@@ -16,4 +20,18 @@ public interface UserRepository extends JpaRepository<User, String> {
     boolean existsByUserName(String userName);
 
     boolean existsByUserId(String userId);
+
+    @Query("select coalesce(u.tokenEpoch, 0) from User u where u.userName = :userName")
+    Optional<Long> findTokenEpochByUserName(@Param("userName") String userName);
+
+    @Transactional
+    @Modifying
+    @Query("update User u set u.tokenEpoch = coalesce(u.tokenEpoch, 0) + 1 where u.userName = :userName")
+    int incrementTokenEpoch(@Param("userName") String userName);
+
+    // only the hash: saving the loaded user would overwrite a concurrent token epoch bump
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :hash where u.userId = :userId")
+    int updatePassword(@Param("userId") String userId, @Param("hash") String hash);
 }
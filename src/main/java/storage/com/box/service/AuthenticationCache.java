@@ -0,0 +1,79 @@
+package storage.com.box.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Bounded cache of fully built {@link Authentication}s keyed by the SHA-256
+ * digest of the bearer token, so a token is verified and converted once instead
+ * of on every request. Entries expire at the token's {@code exp} and are dropped
+ * on logout.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AuthenticationCache {
+
+    Cache<String, Entry> cache;
+
+    public AuthenticationCache(@Value("${jwt.authentication-cache.max-size:10000}") long maxSize,
+                               MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String key, Entry entry) ->
+                        Duration.between(Instant.now(), entry.expiresAt())))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.authentication");
+    }
+
+    public Authentication get(String token) {
+        Entry entry = cache.getIfPresent(digest(token));
+
+        if (entry == null || !entry.expiresAt().isAfter(Instant.now()))
+            return null;
+
+        return entry.authentication();
+    }
+
+    public void put(String token, Authentication authentication, Instant expiresAt) {
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now()))
+            return;
+
+        cache.put(digest(token), new Entry(authentication, expiresAt));
+    }
+
+    public void invalidate(String token) {
+        if (token != null)
+            cache.invalidate(digest(token));
+    }
+
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record Entry(Authentication authentication, Instant expiresAt) {
+    }
+}
@@ -1,8 +1,6 @@
 package storage.com.box.service;
 
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import lombok.AccessLevel;
@@ -10,16 +8,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import storage.com.box.dto.request.AuthenticationRequest;
+import storage.com.box.dto.request.BatchIntrospectRequest;
 import storage.com.box.dto.request.IntrospectRequest;
 import storage.com.box.dto.request.RefreshTokenRequest;
 import storage.com.box.dto.response.AuthenticationResponse;
 import storage.com.box.dto.response.IntrospectResponse;
+import storage.com.box.dto.response.TokenIntrospectionResponse;
 import storage.com.box.entity.InvalidToken;
 import storage.com.box.entity.User;
 import storage.com.box.exception.AppException;
@@ -28,11 +29,12 @@ import storage.com.box.repository.InvalidTokenRepository;
 import storage.com.box.repository.UserRepository;
 
 import java.text.ParseException;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Date;
-import java.util.StringJoiner;
-import java.util.UUID;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -41,12 +43,17 @@ import java.util.UUID;
 @Slf4j
 public class AuthenticationService {
 
-    final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
+    final PasswordEncoder passwordEncoder;
     final UserRepository userRepository;
     final InvalidTokenRepository invalidTokenRepository;
-
-    @Value("${jwt.secret}")
-    protected String SIGNER_KEY;
+    final TokenRevocationStore tokenRevocationStore;
+    final AuthenticationCache authenticationCache;
+    final TokenIssuer tokenIssuer;
+    final RoleScopeSnapshot roleScopeSnapshot;
+    final LoginThrottle loginThrottle;
+    final TokenEpochCache tokenEpochCache;
+    final SigningKeys signingKeys;
+    final TokenVerificationPool tokenVerificationPool;
 
     @Value("${jwt.access-token-expiration}")
     protected long ASSERTION_EXPIRATION_TIME;
@@ -54,8 +61,20 @@ public class AuthenticationService {
     @Value("${jwt.refresh-token-expiration}")
     protected long REFRESH_TOKEN_EXPIRATION_TIME;
 
+    @Value("${jwt.introspect.batch-max-size:500}")
+    protected int INTROSPECT_BATCH_MAX_SIZE;
+
+
     public AuthenticationResponse authenticate(AuthenticationRequest request)
             throws AppException {
+        return authenticate(request, null);
+    }
+
+    public AuthenticationResponse authenticate(AuthenticationRequest request, String clientIp)
+            throws AppException {
+
+        // rejected before any user lookup or password hashing
+        loginThrottle.acquire(request.getUserName(), clientIp);
 
         User user = userRepository.findByUserName(request.getUserName())
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
@@ -66,16 +85,32 @@ public class AuthenticationService {
         if (!authenticated)
             throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
 
-        String accessToken = generateToken(user, false);
-        String refreshToken = generateToken(user, true);
+        rehashIfNeeded(user, request.getPassword());
+
+        var tokens = issueTokens(user);
 
         return AuthenticationResponse.builder()
                 .status("success")
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
+                .accessToken(tokens.accessToken())
+                .refreshToken(tokens.refreshToken())
                 .build();
     }
 
+    // the stored hash was made with another BCrypt cost than the calibrated one
+    void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordEncoder.upgradeEncoding(user.getPassword()))
+            return;
+
+        try {
+            String hash = passwordEncoder.encode(rawPassword);
+            userRepository.updatePassword(user.getUserId(), hash);
+            user.setPassword(hash);
+        } catch (AppException e) {
+            // hashing pool is saturated: keep the old hash, retry on the next login
+            log.debug("skipped password rehash for {}", user.getUserName());
+        }
+    }
+
     public IntrospectResponse introspect(IntrospectRequest request)
             throws AppException, JOSEException {
 
@@ -106,9 +141,11 @@ public class AuthenticationService {
         InvalidToken invalidToken = InvalidToken.builder()
                 .id(jwtId)
                 .exp(exp)
+                .revokedAt(new Date())
                 .build();
 
         invalidTokenRepository.save(invalidToken);
+        tokenRevocationStore.revoke(jwtId, exp);
 
         // Lấy thông tin user
         String userName = signedJWT.getJWTClaimsSet().getSubject();
@@ -116,65 +153,154 @@ public class AuthenticationService {
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
 
         // Generate cả 2 token mới — token rotation
-        String newAccessToken = generateToken(user, false);
-        String newRefreshToken = generateToken(user, true);
+        var tokens = issueTokens(user);
 
         return AuthenticationResponse.builder()
                 .status("success")
-                .accessToken(newAccessToken)
-                .refreshToken(newRefreshToken)
+                .accessToken(tokens.accessToken())
+                .refreshToken(tokens.refreshToken())
                 .build();
     }
 
     public void logout(IntrospectRequest request)
             throws ParseException, JOSEException {
+
+        authenticationCache.invalidate(request.getToken());
+
         try {
             var signJwt = verifyToken(request.getToken(), "access");
 
             InvalidToken invalidToken = InvalidToken.builder()
                     .id(signJwt.getJWTClaimsSet().getJWTID())
                     .exp(signJwt.getJWTClaimsSet().getExpirationTime())
+                    .revokedAt(new Date())
                     .build();
 
             invalidTokenRepository.save(invalidToken);
+            tokenRevocationStore.revoke(invalidToken.getId(), invalidToken.getExp());
 
         } catch (AppException e) {
             //
         }
     }
 
+    /**
+     * Introspects many access tokens in one call. Signatures and claims are checked
+     * in parallel on {@link TokenVerificationPool} for large batches and revocation
+     * is resolved for all JWT IDs at once; results are in the order of the request.
+     * A token that cannot be checked is reported invalid without failing the batch.
+     */
+    public List<TokenIntrospectionResponse> introspectBatch(BatchIntrospectRequest request) {
+        List<String> tokens = request.getTokens() == null ? List.of() : request.getTokens();
+
+        if (tokens.size() > INTROSPECT_BATCH_MAX_SIZE)
+            throw new AppException(ErrorCode.INTROSPECT_BATCH_TOO_LARGE);
+
+        // null = rejected before the revocation check
+        List<JWTClaimsSet> claims = tokenVerificationPool.map(tokens, this::verifiedClaimsOrNull);
+
+        Set<String> revoked = tokenRevocationStore.revokedAmong(claims.stream()
+                .filter(Objects::nonNull)
+                .map(JWTClaimsSet::getJWTID)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+
+        return claims.stream()
+                .map(claimsSet -> claimsSet == null || revoked.contains(claimsSet.getJWTID())
+                        ? TokenIntrospectionResponse.builder().valid(false).build()
+                        : introspectionOf(claimsSet))
+                .toList();
+    }
+
+    JWTClaimsSet verifiedClaimsOrNull(String token) {
+        if (token == null)
+            return null;
+
+        try {
+            return verifySignature(token, "access").getJWTClaimsSet();
+        } catch (ParseException | JOSEException | AppException e) {
+            return null;
+        } catch (DataAccessException e) {
+            // the epoch lookup failed: this token is unknown, the rest of the batch still counts
+            log.warn("could not check the session epoch of an introspected token", e);
+            return null;
+        }
+    }
+
+    static TokenIntrospectionResponse introspectionOf(JWTClaimsSet claimsSet) {
+        return TokenIntrospectionResponse.builder()
+                .valid(true)
+                .subject(claimsSet.getSubject())
+                .scope(Objects.toString(claimsSet.getClaim("scope"), null))
+                .expiresAt(claimsSet.getExpirationTime().getTime() / 1000)
+                .jwtId(claimsSet.getJWTID())
+                .build();
+    }
+
+    /**
+     * Revokes every access and refresh token of the current user by bumping the
+     * user's session epoch, instead of blacklisting each JWT ID.
+     */
+    public void logoutAll() {
+        String userName = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        tokenEpochCache.bump(userName);
+    }
+
+    public Map<String, Object> publicKeys() {
+        return signingKeys.publicJwkSet();
+    }
+
     public SignedJWT verifyToken(String token, String expectedTokenType)
             throws JOSEException, ParseException {
 
+        SignedJWT jwt = verifySignature(token, expectedTokenType);
+
+        if (tokenRevocationStore.isRevoked(jwt.getJWTClaimsSet().getJWTID())) {
+            throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
+        }
+
+        return jwt;
+    }
+
+    // every check of verifyToken except the per-JTI revocation lookup
+    SignedJWT verifySignature(String token, String expectedTokenType)
+            throws JOSEException, ParseException {
+
         SignedJWT jwt = SignedJWT.parse(token);
 
-        // Check algorithm
-        if (!jwt.getHeader().getAlgorithm().equals(JWSAlgorithm.HS256)) {
+        // Check algorithm + key ID
+        JWSVerifier verifier = signingKeys.verifierFor(jwt.getHeader());
+        if (verifier == null) {
             throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
         }
 
         // Check chữ ký
-        JWSVerifier verifier = new MACVerifier(SIGNER_KEY.getBytes());
         if (!jwt.verify(verifier)) {
             throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
         }
 
+        JWTClaimsSet claimsSet = jwt.getJWTClaimsSet();
+
         // Check issuer
-        if (!"storage-service".equals(jwt.getJWTClaimsSet().getIssuer())) {
+        if (!TokenIssuer.ISSUER.equals(claimsSet.getIssuer())) {
             throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
         }
 
         // Check token_type — "access" or "refresh"
-        String tokenType = jwt.getJWTClaimsSet().getStringClaim("token_type");
+        String tokenType = claimsSet.getStringClaim("token_type");
         if (!expectedTokenType.equals(tokenType)) {
             throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
         }
 
-        if (jwt.getJWTClaimsSet().getExpirationTime().before(new Date())) {
+        Date expirationTime = claimsSet.getExpirationTime();
+        if (expirationTime == null || expirationTime.before(new Date())) {
             throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
         }
 
-        if (invalidTokenRepository.existsById(jwt.getJWTClaimsSet().getJWTID())) {
+        // Check session epoch — older tokens were revoked by "log out everywhere"
+        long epoch = TokenEpochCache.epochOf(claimsSet.getClaim(TokenEpochCache.CLAIM));
+        if (epoch < tokenEpochCache.current(claimsSet.getSubject())) {
             throw new AppException(ErrorCode.AUTHENTICATION_FAIL);
         }
 
@@ -182,48 +308,23 @@ public class AuthenticationService {
     }
 
     String generateToken(User user, boolean isRefresh) {
-        JWSHeader header = new JWSHeader(JWSAlgorithm.HS256);
-
-        long expirationSeconds = isRefresh
-                ? REFRESH_TOKEN_EXPIRATION_TIME   // ví dụ: 7 ngày
-                : ASSERTION_EXPIRATION_TIME;       // ví dụ: 15 phút
-
-        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
-                .subject(user.getUserName())
-                .issuer("storage-service")
-                .issueTime(new Date())
-                .expirationTime(new Date(
-                        Instant.now().plus(expirationSeconds, ChronoUnit.SECONDS).toEpochMilli()
-                ))
-                .jwtID(UUID.randomUUID().toString())
-                .claim("scope", buildScope(user))
-                .claim("token_type", isRefresh ? "refresh" : "access") // ← thêm mới
-                .build();
+        return tokenIssuer.issue(user.getUserName(), buildScope(user), epochOf(user), isRefresh);
+    }
 
-        Payload payload = new Payload(claimsSet.toJSONObject());
-        JWSObject jwsObject = new JWSObject(header, payload);
+    // one scope walk and one issue time for both tokens of a login / refresh
+    TokenIssuer.TokenPair issueTokens(User user) {
+        return tokenIssuer.issue(user.getUserName(), buildScope(user), epochOf(user));
+    }
 
-        try {
-            jwsObject.sign(new MACSigner(SIGNER_KEY.getBytes()));
-            return jwsObject.serialize();
-        } catch (JOSEException e) {
-            throw new RuntimeException(e);
-        }
+    static long epochOf(User user) {
+        return user.getTokenEpoch() == null ? 0 : user.getTokenEpoch();
     }
 
     String buildScope(User user) {
-        StringJoiner stringJoiner = new StringJoiner(" ");
-
-        if (!CollectionUtils.isEmpty(user.getRoles())) {
-            user.getRoles().forEach(role -> {
-                stringJoiner.add(role.getName());
-                role.getPermissions().forEach(permission -> {
-                    stringJoiner.add(permission.getName());
-                });
-            });
-        }
+        if (CollectionUtils.isEmpty(user.getRoles()))
+            return "";
 
-        return stringJoiner.toString();
+        return roleScopeSnapshot.scopeOf(user.getRoles());
     }
 
 }
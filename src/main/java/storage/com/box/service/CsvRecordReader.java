@@ -0,0 +1,110 @@
+package storage.com.box.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: comma separated, {@code "} quoting with {@code ""}
+ * escapes, quoted fields may span lines. Reads one record at a time so the input
+ * never has to fit in memory.
+ */
+final class CsvRecordReader {
+
+    final Reader reader;
+    final int maxRecordLength;
+
+    int pushedBack = -2;
+
+    CsvRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * Next record, or {@code null} at the end of the input. Blank lines are skipped.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        int length = 0;
+
+        while (true) {
+            int c = read();
+
+            if (c == -1) {
+                if (quoted)
+                    throw new IllegalArgumentException("unterminated quoted field");
+
+                if (!fieldStarted && fields.isEmpty())
+                    return null;
+
+                fields.add(field.toString());
+                return fields;
+            }
+
+            if (++length > maxRecordLength)
+                throw new IllegalArgumentException("row longer than " + maxRecordLength + " characters");
+
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                } else if ((c = read()) == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    pushBack(c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    quoted = true;
+                    fieldStarted = true;
+                }
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    fieldStarted = true;
+                }
+                case '\r', '\n' -> {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n')
+                            pushBack(next);
+                    }
+
+                    if (!fieldStarted && fields.isEmpty()) {
+                        length = 0;
+                        continue;
+                    }
+
+                    fields.add(field.toString());
+                    return fields;
+                }
+                default -> {
+                    field.append((char) c);
+                    fieldStarted = true;
+                }
+            }
+        }
+    }
+
+    int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+
+        return reader.read();
+    }
+
+    void pushBack(int c) {
+        pushedBack = c;
+    }
+}
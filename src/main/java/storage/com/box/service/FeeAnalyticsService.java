@@ -0,0 +1,154 @@
+package storage.com.box.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.dto.request.FeeAnalyticsRequest;
+import storage.com.box.dto.response.FeeAnalyticsResponse;
+import storage.com.box.dto.response.FeeCreationResponse;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.User;
+import storage.com.box.enums.FeeGroupBy;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filter / group-by / top-N queries over the current user's fees, answered from a
+ * {@link FeeColumns} copy instead of entities.
+ * <p>
+ * Copies are built on first use and kept in a cache bounded by their estimated size
+ * ({@code fee.analytics.max-bytes}); committed writes patch the copy of their user
+ * through {@link FeeChangedEvent}, other users' copies are untouched. Changes that
+ * land while a copy is being built are applied before it is published, see
+ * {@link PatchableCache}.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class FeeAnalyticsService {
+
+    UserRepository userRepository;
+    FeeRepository feeRepository;
+    EntityManager entityManager;
+    TransactionTemplate readOnlyTemplate;
+
+    PatchableCache<FeeColumns> columns;
+
+    public FeeAnalyticsService(UserRepository userRepository,
+                               FeeRepository feeRepository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${fee.analytics.max-bytes:67108864}") long maxBytes) {
+        this.userRepository = userRepository;
+        this.feeRepository = feeRepository;
+        this.entityManager = entityManager;
+
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+
+        Cache<String, FeeColumns> cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String userId, FeeColumns value) -> (int) Math.min(Integer.MAX_VALUE, value.estimatedBytes()))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "fee.analytics");
+        this.columns = new PatchableCache<>(cache);
+    }
+
+    @PreAuthorize("hasRole('GET')")
+    public FeeAnalyticsResponse analyze(FeeAnalyticsRequest request) {
+        FeeGroupBy groupBy = FeeGroupBy.of(request.getGroupBy());
+
+        LocalDate from = request.getFrom();
+        LocalDate to = request.getTo();
+
+        if ((from != null && to != null && from.isAfter(to)) || (request.getTop() != null && request.getTop() < 1))
+            throw new AppException(ErrorCode.INVALID_ANALYTICS_REQUEST);
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
+
+        FeeColumns.Aggregate aggregate = columnsOf(user.getUserId()).aggregate(
+                from == null ? null : Math.toIntExact(from.toEpochDay()),
+                to == null ? null : Math.toIntExact(to.toEpochDay()),
+                request.getCategory() == null || request.getCategory().isEmpty() ? null : request.getCategory(),
+                groupBy);
+
+        List<FeeColumns.Group> groups = aggregate.groups();
+        if (request.getTop() != null)
+            groups = groups.stream()
+                    .sorted(Comparator.comparingLong(FeeColumns.Group::total).reversed())
+                    .limit(request.getTop())
+                    .toList();
+
+        return FeeAnalyticsResponse.builder()
+                .count(aggregate.count())
+                .total(aggregate.total() / 100.0)
+                .groups(groups.stream()
+                        .map(group -> FeeAnalyticsResponse.Group.builder()
+                                .key(group.key())
+                                .count(group.count())
+                                .total(group.total() / 100.0)
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    FeeColumns columnsOf(String userId) {
+        return columns.get(userId, this::build);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFeeChanged(FeeChangedEvent event) {
+        columns.patch(event.userId(), current -> current.with(
+                event.saved().stream().map(FeeAnalyticsService::row).toList(),
+                event.deletedIds()));
+    }
+
+    FeeColumns build(String userId) {
+        List<FeeColumns.Row> rows = new ArrayList<>();
+
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<Fee> fees = feeRepository.streamByUserId(userId)) {
+                fees.forEach(fee -> {
+                    rows.add(new FeeColumns.Row(fee.getFeeId(), FeeColumns.epochDayOf(fee.getDate()),
+                            FeeColumns.minorUnits(fee.getFeePrice()), fee.getCategoryName()));
+                    entityManager.detach(fee);
+                });
+            }
+        });
+
+        FeeColumns built = new FeeColumns(rows);
+        log.debug("analytics columns of {} built with {} fees, ~{} bytes", userId, built.size(), built.estimatedBytes());
+
+        return built;
+    }
+
+    static FeeColumns.Row row(FeeCreationResponse fee) {
+        return new FeeColumns.Row(fee.getFeeId(), FeeColumns.epochDayOf(fee.getDate()),
+                FeeColumns.minorUnits(fee.getFeePrice()), fee.getCategoryName());
+    }
+}
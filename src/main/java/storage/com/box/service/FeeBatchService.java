@@ -0,0 +1,214 @@
+package storage.com.box.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import storage.com.box.dto.request.FeeBatchRequest.FeeOperation;
+import storage.com.box.dto.response.FeeBatchResponse;
+import storage.com.box.dto.response.FeeBatchResponse.FeeOperationResult;
+import storage.com.box.dto.response.FeeCreationResponse;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.User;
+import storage.com.box.enums.FeeOperationType;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.mapper.FeeMapper;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of fee create / update / delete operations in one transaction.
+ * <p>
+ * The user, the authorities and every referenced fee are loaded once for the whole
+ * batch; each operation is then checked against them (role of its type, fee owned
+ * by the user). If any operation is rejected nothing is written and the result of
+ * each operation says why. Otherwise creates go through one {@code saveAll}, updates
+ * are flushed by dirty checking and deletes run as one statement.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class FeeBatchService {
+
+    UserRepository userRepository;
+    FeeRepository feeRepository;
+    FeeMapper feeMapper;
+    FeeSummaryService feeSummaryService;
+    ApplicationEventPublisher eventPublisher;
+
+    @NonFinal
+    @Value("${fee.batch.max-size:500}")
+    int maxBatchSize;
+
+    @Transactional
+    @PreAuthorize("hasAnyRole('CREATE', 'UPDATE', 'DELETE')")
+    public FeeBatchResponse apply(List<FeeOperation> operations) {
+        if (operations == null || operations.isEmpty())
+            return FeeBatchResponse.builder().applied(true).results(List.of()).build();
+
+        if (operations.size() > maxBatchSize)
+            throw new AppException(ErrorCode.FEE_BATCH_TOO_LARGE);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Set<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+
+        User user = userRepository.findByUserName(authentication.getName())
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
+
+        Map<String, Fee> owned = ownedFees(user.getUserId(), operations);
+
+        List<FeeOperationResult> results = new ArrayList<>(operations.size());
+        boolean rejected = false;
+
+        // fees deleted earlier in the batch can not be touched again
+        Set<String> deleted = new HashSet<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            FeeOperation operation = operations.get(i);
+            ErrorCode error = check(operation, authorities, owned, deleted);
+
+            FeeOperationResult result = FeeOperationResult.builder()
+                    .index(i)
+                    .type(operation.getType())
+                    .build();
+
+            if (error != null) {
+                rejected = true;
+                result.setCode(error.getCode());
+                result.setMessage(error.getMessage());
+            } else if (operation.getType() == FeeOperationType.DELETE) {
+                deleted.add(operation.getFeeId());
+            }
+
+            results.add(result);
+        }
+
+        if (rejected)
+            return FeeBatchResponse.builder().applied(false).results(results).build();
+
+        write(user.getUserId(), operations, owned, results);
+
+        return FeeBatchResponse.builder().applied(true).results(results).build();
+    }
+
+    Map<String, Fee> ownedFees(String userId, List<FeeOperation> operations) {
+        Set<String> feeIds = operations.stream()
+                .filter(operation -> operation.getType() != FeeOperationType.CREATE)
+                .map(FeeOperation::getFeeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (feeIds.isEmpty())
+            return Map.of();
+
+        Map<String, Fee> owned = new HashMap<>();
+        for (Fee fee : feeRepository.findAllById(feeIds)) {
+            if (userId.equals(fee.getUserId()))
+                owned.put(fee.getFeeId(), fee);
+        }
+
+        return owned;
+    }
+
+    static ErrorCode check(FeeOperation operation, Set<String> authorities,
+                           Map<String, Fee> owned, Set<String> deleted) {
+        if (operation == null || operation.getType() == null)
+            return ErrorCode.INVALID_FEE_OPERATION;
+
+        if (!authorities.contains(operation.getType().authority()))
+            return ErrorCode.ACCESS_DENIED;
+
+        return switch (operation.getType()) {
+            case CREATE -> operation.getCreate() == null ? ErrorCode.INVALID_FEE_OPERATION : null;
+            case UPDATE, DELETE -> {
+                if (operation.getType() == FeeOperationType.UPDATE && operation.getUpdate() == null)
+                    yield ErrorCode.INVALID_FEE_OPERATION;
+
+                // someone else's fee is reported the same as a missing one
+                String feeId = operation.getFeeId();
+                yield feeId == null || !owned.containsKey(feeId) || deleted.contains(feeId)
+                        ? ErrorCode.FEE_NOT_FOUND
+                        : null;
+            }
+        };
+    }
+
+    void write(String userId, List<FeeOperation> operations, Map<String, Fee> owned,
+               List<FeeOperationResult> results) {
+        List<Fee> created = new ArrayList<>();
+        List<FeeOperationResult> createdResults = new ArrayList<>();
+        List<Fee> deleted = new ArrayList<>();
+        Map<String, FeeCreationResponse> saved = new LinkedHashMap<>();
+        FeeSummaryDelta delta = new FeeSummaryDelta();
+
+        for (int i = 0; i < operations.size(); i++) {
+            FeeOperation operation = operations.get(i);
+
+            switch (operation.getType()) {
+                case CREATE -> {
+                    Fee fee = feeMapper.toFee(operation.getCreate());
+                    fee.setUserId(userId);
+
+                    created.add(fee);
+                    createdResults.add(results.get(i));
+                }
+                case UPDATE -> {
+                    Fee fee = owned.get(operation.getFeeId());
+
+                    delta.remove(fee);
+                    feeMapper.updateFee(operation.getUpdate(), fee);
+                    delta.add(fee);
+
+                    results.get(i).setFee(feeMapper.toFeeCreationResponse(fee));
+                    saved.put(fee.getFeeId(), results.get(i).getFee());
+                }
+                case DELETE -> {
+                    Fee fee = owned.get(operation.getFeeId());
+
+                    delta.remove(fee);
+                    deleted.add(fee);
+                    saved.remove(fee.getFeeId());
+                }
+            }
+        }
+
+        if (!created.isEmpty()) {
+            List<Fee> savedFees = feeRepository.saveAll(created);
+
+            for (int i = 0; i < savedFees.size(); i++) {
+                delta.add(savedFees.get(i));
+                createdResults.get(i).setFee(feeMapper.toFeeCreationResponse(savedFees.get(i)));
+                saved.put(savedFees.get(i).getFeeId(), createdResults.get(i).getFee());
+            }
+        }
+
+        if (!deleted.isEmpty())
+            feeRepository.deleteAllInBatch(deleted);
+
+        feeSummaryService.apply(delta);
+
+        if (!saved.isEmpty())
+            eventPublisher.publishEvent(FeeChangedEvent.saved(userId, List.copyOf(saved.values())));
+        if (!deleted.isEmpty())
+            eventPublisher.publishEvent(FeeChangedEvent.deleted(userId, deleted.stream().map(Fee::getFeeId).toList()));
+
+        log.debug("fee batch applied: {} created, {} deleted, {} operations",
+                created.size(), deleted.size(), operations.size());
+    }
+}
@@ -0,0 +1,127 @@
+package storage.com.box.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import storage.com.box.dto.request.BudgetRequest;
+import storage.com.box.dto.response.BudgetResponse;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.FeeBudget;
+import storage.com.box.entity.FeeBudgetId;
+import storage.com.box.entity.User;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.BudgetSpend;
+import storage.com.box.repository.FeeBudgetRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Per-category monthly budgets of the current user.
+ * <p>
+ * Month-to-date spend is the {@code fee_monthly_summary} row of the category, which
+ * {@link FeeSummaryService#apply} increments in place in the writing transaction.
+ * Checking a budget is one primary-key join of the budget with that row; because the
+ * increment holds the row lock until commit, the value read after it includes every
+ * concurrent write to the same counter.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class FeeBudgetService {
+
+    FeeBudgetRepository budgetRepository;
+    UserRepository userRepository;
+
+    /**
+     * Whether the month of {@code fee} is over the budget of its category, after the
+     * fee's summary delta was applied. Null when the fee has no date or the category
+     * has no budget.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Boolean overBudget(Fee fee) {
+        if (fee.getDate() == null)
+            return null;
+
+        return budgetRepository.findSpend(fee.getUserId(), categoryKey(fee.getCategoryName()),
+                        FeeSummaryDelta.monthOf(fee.getDate()))
+                .map(BudgetSpend::overBudget)
+                .orElse(null);
+    }
+
+    /**
+     * Budgets with their spend in {@code month} (yyyy-MM, UTC), the current month by default.
+     */
+    @PreAuthorize("hasRole('GET')")
+    public List<BudgetResponse> getBudgets(String month) {
+        YearMonth yearMonth = month == null || month.isBlank()
+                ? YearMonth.now(ZoneOffset.UTC)
+                : FeeSummaryService.parseMonth(month);
+
+        return budgetRepository.findAllSpend(currentUser().getUserId(), FeeSummaryService.monthKey(yearMonth))
+                .stream()
+                .map(spend -> toResponse(spend, yearMonth))
+                .toList();
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('CREATE')")
+    public BudgetResponse setBudget(BudgetRequest request) {
+        User user = currentUser();
+        FeeBudgetId id = new FeeBudgetId(user.getUserId(), categoryKey(request.getCategoryName()));
+
+        budgetRepository.save(FeeBudget.builder()
+                .id(id)
+                .amount(request.getAmount())
+                .build());
+
+        YearMonth now = YearMonth.now(ZoneOffset.UTC);
+
+        return budgetRepository.findSpend(id.getUserId(), id.getCategoryName(), FeeSummaryService.monthKey(now))
+                .map(spend -> toResponse(spend, now))
+                .orElseThrow();
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('DELETE')")
+    public void deleteBudget(String categoryName) {
+        FeeBudgetId id = new FeeBudgetId(currentUser().getUserId(), categoryKey(categoryName));
+
+        if (!budgetRepository.existsById(id))
+            throw new AppException(ErrorCode.BUDGET_NOT_FOUND);
+
+        budgetRepository.deleteById(id);
+    }
+
+    User currentUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        return userRepository.findByUserName(username)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
+    }
+
+    static BudgetResponse toResponse(BudgetSpend spend, YearMonth month) {
+        return BudgetResponse.builder()
+                .categoryName(spend.categoryName().isEmpty() ? null : spend.categoryName())
+                .amount(spend.amount())
+                .month(month.toString())
+                .spent(spend.spentOrZero())
+                .remaining(spend.amount() - spend.spentOrZero())
+                .overBudget(spend.overBudget())
+                .build();
+    }
+
+    static String categoryKey(String categoryName) {
+        return categoryName == null ? "" : categoryName;
+    }
+}
@@ -0,0 +1,20 @@
+package storage.com.box.service;
+
+import storage.com.box.dto.response.FeeCreationResponse;
+
+import java.util.List;
+
+/**
+ * Published by every fee write, delivered to listeners once the transaction has
+ * committed. {@code saved} holds copies of the created or updated fees.
+ */
+public record FeeChangedEvent(String userId, List<FeeCreationResponse> saved, List<String> deletedIds) {
+
+    public static FeeChangedEvent saved(String userId, List<FeeCreationResponse> fees) {
+        return new FeeChangedEvent(userId, List.copyOf(fees), List.of());
+    }
+
+    public static FeeChangedEvent deleted(String userId, List<String> feeIds) {
+        return new FeeChangedEvent(userId, List.of(), List.copyOf(feeIds));
+    }
+}
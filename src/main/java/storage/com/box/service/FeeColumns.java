@@ -0,0 +1,324 @@
+package storage.com.box.service;
+
+import storage.com.box.enums.FeeGroupBy;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Immutable column-oriented copy of one user's fees.
+ * <p>
+ * Rows are sorted by UTC epoch day (fees without a date first), amounts are kept in
+ * minor units (1/100) and categories as ordinals into a dictionary, so a query is a
+ * binary search for the date range followed by one loop over primitive arrays.
+ * Changes produce a new instance; readers never see a half-applied change. A change
+ * splices the arrays instead of rebuilding them: new rows go in at the binary-search
+ * position of their day, removed rows are cut out, and everything else is copied in
+ * blocks with the existing category ordinals.
+ */
+final class FeeColumns {
+
+    static final int NO_DATE = Integer.MIN_VALUE;
+    static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // heap cost of one row without its id: four primitive slots and the id reference
+    static final int ROW_BYTES = 4 + 4 + 8 + 4 + 4;
+    static final int BASE_BYTES = 6 * 16;
+    // String header with hash and coder, plus the header of its byte[]
+    static final int STRING_BYTES = 24;
+    static final int ARRAY_BYTES = 16;
+
+    final String[] feeIds;
+    final int[] epochDays;
+    final int[] months;
+    final long[] amounts;
+    final int[] categories;
+    final String[] dictionary;
+
+    FeeColumns(List<Row> rows) {
+        List<Row> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparingInt(Row::epochDay));
+
+        int size = sorted.size();
+        feeIds = new String[size];
+        epochDays = new int[size];
+        months = new int[size];
+        amounts = new long[size];
+        categories = new int[size];
+
+        Map<String, Integer> ordinals = new LinkedHashMap<>();
+        int previousDay = NO_DATE;
+        int previousMonth = 0;
+
+        for (int i = 0; i < size; i++) {
+            Row row = sorted.get(i);
+
+            feeIds[i] = row.feeId();
+            epochDays[i] = row.epochDay();
+            amounts[i] = row.amount();
+            categories[i] = ordinals.computeIfAbsent(row.category() == null ? "" : row.category(),
+                    key -> ordinals.size());
+
+            // days are sorted, only compute the month when the day changes
+            if (row.epochDay() != previousDay) {
+                previousDay = row.epochDay();
+                previousMonth = row.epochDay() == NO_DATE ? 0 : monthOf(row.epochDay());
+            }
+            months[i] = previousMonth;
+        }
+
+        dictionary = ordinals.keySet().toArray(String[]::new);
+    }
+
+    private FeeColumns(String[] feeIds, int[] epochDays, int[] months, long[] amounts, int[] categories,
+                       String[] dictionary) {
+        this.feeIds = feeIds;
+        this.epochDays = epochDays;
+        this.months = months;
+        this.amounts = amounts;
+        this.categories = categories;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * A copy with {@code saved} rows added or replaced and {@code deletedIds} removed.
+     */
+    FeeColumns with(Collection<Row> saved, Collection<String> deletedIds) {
+        Set<String> replaced = new HashSet<>(deletedIds);
+        saved.forEach(row -> replaced.add(row.feeId()));
+
+        // ids are unique, so the scan stops once every replaced id was seen
+        int[] removed = new int[Math.min(replaced.size(), feeIds.length)];
+        int removedCount = 0;
+        for (int i = 0; i < feeIds.length && removedCount < removed.length; i++) {
+            if (replaced.contains(feeIds[i]))
+                removed[removedCount++] = i;
+        }
+
+        List<Row> inserted = new ArrayList<>(saved);
+        inserted.sort(Comparator.comparingInt(Row::epochDay));
+
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (int ordinal = 0; ordinal < dictionary.length; ordinal++)
+            ordinals.put(dictionary[ordinal], ordinal);
+        for (Row row : inserted)
+            ordinals.putIfAbsent(row.category() == null ? "" : row.category(), ordinals.size());
+
+        String[] newDictionary = Arrays.copyOf(dictionary, ordinals.size());
+        ordinals.forEach((category, ordinal) -> newDictionary[ordinal] = category);
+
+        int size = feeIds.length - removedCount + inserted.size();
+        FeeColumns next = new FeeColumns(new String[size], new int[size], new int[size], new long[size],
+                new int[size], newDictionary);
+
+        int source = 0;
+        int target = 0;
+        int nextRemoved = 0;
+
+        for (Row row : inserted) {
+            // after the rows of the same day, so a batch keeps its order
+            int at = lowerBound(row.epochDay() == NO_DATE ? NO_DATE + 1 : row.epochDay() + 1);
+
+            for (; nextRemoved < removedCount && removed[nextRemoved] < at; nextRemoved++) {
+                target = copyTo(next, source, removed[nextRemoved], target);
+                source = removed[nextRemoved] + 1;
+            }
+            target = copyTo(next, source, at, target);
+            source = Math.max(source, at);
+
+            next.feeIds[target] = row.feeId();
+            next.epochDays[target] = row.epochDay();
+            next.months[target] = row.epochDay() == NO_DATE ? 0 : monthOf(row.epochDay());
+            next.amounts[target] = row.amount();
+            next.categories[target++] = ordinals.get(row.category() == null ? "" : row.category());
+        }
+
+        for (; nextRemoved < removedCount; nextRemoved++) {
+            target = copyTo(next, source, removed[nextRemoved], target);
+            source = removed[nextRemoved] + 1;
+        }
+        copyTo(next, source, feeIds.length, target);
+
+        return next;
+    }
+
+    // copies rows [from, to) to target onwards, returns the next target index
+    int copyTo(FeeColumns next, int from, int to, int target) {
+        int length = to - from;
+        if (length <= 0)
+            return target;
+
+        System.arraycopy(feeIds, from, next.feeIds, target, length);
+        System.arraycopy(epochDays, from, next.epochDays, target, length);
+        System.arraycopy(months, from, next.months, target, length);
+        System.arraycopy(amounts, from, next.amounts, target, length);
+        System.arraycopy(categories, from, next.categories, target, length);
+
+        return target + length;
+    }
+
+    int size() {
+        return feeIds.length;
+    }
+
+    long estimatedBytes() {
+        long bytes = BASE_BYTES + (long) feeIds.length * ROW_BYTES;
+
+        for (String feeId : feeIds)
+            bytes += stringBytes(feeId);
+        for (String category : dictionary)
+            bytes += 4 + stringBytes(category);
+
+        return bytes;
+    }
+
+    /**
+     * Heap size of a String with compact strings: one byte per char when every char is
+     * Latin-1 (e.g. a UUID is 80 bytes), two otherwise, rounded up to 8-byte alignment.
+     */
+    static long stringBytes(String value) {
+        if (value == null)
+            return 0;
+
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+
+        return STRING_BYTES + align(ARRAY_BYTES + (long) value.length() * bytesPerChar);
+    }
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    /**
+     * Count and total of the rows with {@code fromDay <= epochDay <= toDay} (either
+     * bound may be null, undated fees only count when neither is set) and a category in
+     * {@code categoryNames} (null for all), grouped by {@code groupBy}.
+     */
+    Aggregate aggregate(Integer fromDay, Integer toDay, Collection<String> categoryNames, FeeGroupBy groupBy) {
+        int from = fromDay == null && toDay == null ? 0 : lowerBound(fromDay == null ? NO_DATE + 1 : fromDay);
+        int to = toDay == null ? feeIds.length : lowerBound(toDay + 1);
+
+        boolean[] allowed = null;
+        if (categoryNames != null) {
+            allowed = new boolean[dictionary.length];
+            for (int ordinal = 0; ordinal < dictionary.length; ordinal++)
+                allowed[ordinal] = categoryNames.contains(dictionary[ordinal]);
+        }
+
+        return switch (groupBy) {
+            case NONE, CATEGORY -> byCategory(from, to, allowed, groupBy == FeeGroupBy.CATEGORY);
+            case MONTH -> byRun(from, to, allowed, months, month -> month == 0
+                    ? null
+                    : YearMonth.of(month / 100, month % 100).toString());
+            case DAY -> byRun(from, to, allowed, epochDays, day -> day == NO_DATE
+                    ? null
+                    : LocalDate.ofEpochDay(day).toString());
+        };
+    }
+
+    Aggregate byCategory(int from, int to, boolean[] allowed, boolean grouped) {
+        long[] totals = new long[dictionary.length];
+        long[] counts = new long[dictionary.length];
+
+        for (int i = from; i < to; i++) {
+            int category = categories[i];
+            if (allowed != null && !allowed[category])
+                continue;
+
+            totals[category] += amounts[i];
+            counts[category]++;
+        }
+
+        long count = 0;
+        long total = 0;
+        List<Group> groups = new ArrayList<>();
+
+        for (int ordinal = 0; ordinal < dictionary.length; ordinal++) {
+            count += counts[ordinal];
+            total += totals[ordinal];
+
+            if (grouped && counts[ordinal] > 0)
+                groups.add(new Group(dictionary[ordinal].isEmpty() ? null : dictionary[ordinal],
+                        counts[ordinal], totals[ordinal]));
+        }
+
+        return new Aggregate(count, total, groups);
+    }
+
+    // rows are sorted by day, so equal days and months are consecutive runs
+    Aggregate byRun(int from, int to, boolean[] allowed, int[] keys,
+                    IntFunction<String> label) {
+        long count = 0;
+        long total = 0;
+        List<Group> groups = new ArrayList<>();
+
+        int i = from;
+        while (i < to) {
+            int key = keys[i];
+            long runCount = 0;
+            long runTotal = 0;
+
+            for (; i < to && keys[i] == key; i++) {
+                if (allowed != null && !allowed[categories[i]])
+                    continue;
+
+                runCount++;
+                runTotal += amounts[i];
+            }
+
+            if (runCount > 0) {
+                groups.add(new Group(label.apply(key), runCount, runTotal));
+                count += runCount;
+                total += runTotal;
+            }
+        }
+
+        return new Aggregate(count, total, groups);
+    }
+
+    // first row whose day is >= day
+    int lowerBound(int day) {
+        int low = 0;
+        int high = epochDays.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochDays[middle] < day)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        return low;
+    }
+
+    static int epochDayOf(Date date) {
+        return date == null ? NO_DATE : (int) Math.floorDiv(date.getTime(), MILLIS_PER_DAY);
+    }
+
+    static long minorUnits(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    static int monthOf(int epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    record Row(String feeId, int epochDay, long amount, String category) {
+    }
+
+    record Group(String key, long count, long total) {
+    }
+
+    record Aggregate(long count, long total, List<Group> groups) {
+    }
+}
@@ -0,0 +1,56 @@
+package storage.com.box.service;
+
+import storage.com.box.entity.Fee;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position after the last fee of a page in the {@code (date desc, feeId desc)}
+ * order, encoded as an opaque base64url token. Fees without a date come after
+ * all dated ones.
+ */
+record FeeCursor(Date date, String feeId) {
+
+    static final byte DATED = 1;
+    static final byte UNDATED = 0;
+
+    static FeeCursor after(Fee fee) {
+        return new FeeCursor(fee.getDate(), fee.getFeeId());
+    }
+
+    String encode() {
+        byte[] id = feeId.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + id.length)
+                .put(date == null ? UNDATED : DATED)
+                .putLong(date == null ? 0 : date.getTime())
+                .put(id);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    static FeeCursor decode(String cursor) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+
+            byte kind = buffer.get();
+            long millis = buffer.getLong();
+
+            if ((kind != DATED && kind != UNDATED) || !buffer.hasRemaining())
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+
+            byte[] id = new byte[buffer.remaining()];
+            buffer.get(id);
+
+            return new FeeCursor(kind == DATED ? new Date(millis) : null, new String(id, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
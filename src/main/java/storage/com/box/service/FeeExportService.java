@@ -0,0 +1,144 @@
+package storage.com.box.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.User;
+import storage.com.box.enums.ExportFormat;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.mapper.FeeMapper;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams every fee of the current user as CSV or NDJSON.
+ * <p>
+ * Rows come from a database cursor ({@link FeeRepository#streamByUserId}) inside a
+ * read-only transaction and each entity is detached once written, so memory stays
+ * flat whatever the history size. The header (or first row) is flushed right away.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class FeeExportService {
+
+    static final String CSV_HEADER = "fee_id,fee_name,fee_price,fee_description,date,category_name\n";
+    static final int FLUSH_EVERY_ROWS = 500;
+
+    UserRepository userRepository;
+    FeeRepository feeRepository;
+    FeeMapper feeMapper;
+    ObjectMapper objectMapper;
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+
+    public FeeExportService(UserRepository userRepository,
+                            FeeRepository feeRepository,
+                            FeeMapper feeMapper,
+                            ObjectMapper objectMapper,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.feeRepository = feeRepository;
+        this.feeMapper = feeMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * The user is resolved here, on the request thread; the returned body runs later
+     * on an async thread without the security context.
+     */
+    @PreAuthorize("hasRole('GET')")
+    public StreamingResponseBody export(ExportFormat format) {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        User user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
+
+        return outputStream -> transactionTemplate.executeWithoutResult(status -> {
+            try {
+                write(user.getUserId(), format, outputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    void write(String userId, ExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        int rows = 0;
+
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.flush();
+        }
+
+        try (Stream<Fee> fees = feeRepository.streamByUserId(userId)) {
+            Iterator<Fee> iterator = fees.iterator();
+
+            while (iterator.hasNext()) {
+                Fee fee = iterator.next();
+
+                if (format == ExportFormat.CSV)
+                    writeCsvRow(writer, fee);
+                else
+                    writer.write(objectMapper.writeValueAsString(feeMapper.toFeeCreationResponse(fee)) + '\n');
+
+                // nothing reads it again, keep the persistence context empty
+                entityManager.detach(fee);
+
+                if (++rows == 1 || rows % FLUSH_EVERY_ROWS == 0)
+                    writer.flush();
+            }
+        }
+
+        writer.flush();
+        log.debug("exported {} fees as {}", rows, format);
+    }
+
+    static void writeCsvRow(Writer writer, Fee fee) throws IOException {
+        writer.write(csv(fee.getFeeId()));
+        writer.write(',');
+        writer.write(csv(fee.getFeeName()));
+        writer.write(',');
+        writer.write(BigDecimal.valueOf(fee.getFeePrice()).stripTrailingZeros().toPlainString());
+        writer.write(',');
+        writer.write(csv(fee.getFeeDescription()));
+        writer.write(',');
+        writer.write(fee.getDate() == null ? "" : fee.getDate().toInstant().toString());
+        writer.write(',');
+        writer.write(csv(fee.getCategoryName()));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting
+    static String csv(String value) {
+        if (value == null)
+            return "";
+
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0)
+            return value;
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,399 @@
+package storage.com.box.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.dto.request.FeeCreationRequest;
+import storage.com.box.dto.response.FeeImportResponse;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.User;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.mapper.FeeMapper;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk fee import from a CSV file or a JSON array.
+ * <p>
+ * The body is parsed one row at a time; valid rows are collected into chunks of
+ * {@code fee.import.chunk-size} and each chunk is inserted in its own transaction,
+ * so Hibernate sends it as JDBC batches ({@code hibernate.jdbc.batch_size}) and the
+ * persistence context is cleared before the next one. Fee ids are generated in the
+ * application, which keeps batching possible. Invalid rows do not stop the import,
+ * they are listed in the response.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class FeeImportService {
+
+    static final int MAX_TEXT_LENGTH = 255;
+    static final int MAX_CSV_RECORD_LENGTH = 64 * 1024;
+
+    UserRepository userRepository;
+    FeeRepository feeRepository;
+    FeeMapper feeMapper;
+    FeeSummaryService feeSummaryService;
+    ApplicationEventPublisher eventPublisher;
+    ObjectMapper objectMapper;
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+
+    int chunkSize;
+    long maxRows;
+    int maxReportedErrors;
+
+    Counter importedRows;
+    Counter rejectedRows;
+    Timer duration;
+    DistributionSummary throughput;
+
+    public FeeImportService(UserRepository userRepository,
+                            FeeRepository feeRepository,
+                            FeeMapper feeMapper,
+                            FeeSummaryService feeSummaryService,
+                            ApplicationEventPublisher eventPublisher,
+                            ObjectMapper objectMapper,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${fee.import.chunk-size:500}") int chunkSize,
+                            @Value("${fee.import.max-rows:200000}") long maxRows,
+                            @Value("${fee.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userRepository = userRepository;
+        this.feeRepository = feeRepository;
+        this.feeMapper = feeMapper;
+        this.feeSummaryService = feeSummaryService;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxRows = maxRows;
+        this.maxReportedErrors = maxReportedErrors;
+
+        this.importedRows = Counter.builder("fee.import.rows")
+                .tag("outcome", "imported")
+                .register(meterRegistry);
+        this.rejectedRows = Counter.builder("fee.import.rows")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        this.duration = Timer.builder("fee.import.duration")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("fee.import.throughput")
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expects a header row; {@code fee_name} and {@code fee_price} are required,
+     * {@code fee_description}, {@code date} and {@code category_name} are optional
+     * and other columns (e.g. {@code fee_id} of an export) are ignored.
+     */
+    @PreAuthorize("hasRole('CREATE')")
+    public FeeImportResponse importCsv(InputStream body) {
+        ImportRun run = new ImportRun(currentUserId());
+        CsvRecordReader csv = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), MAX_CSV_RECORD_LENGTH);
+
+        Map<String, Integer> columns = csvColumns(csv);
+
+        try {
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                long row = run.nextRow();
+                if (row < 0)
+                    break;
+
+                try {
+                    run.add(row, fromCsv(record, columns));
+                } catch (IllegalArgumentException e) {
+                    run.reject(row, e.getMessage());
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            run.abort("malformed CSV: " + e.getMessage());
+        }
+
+        return run.finish();
+    }
+
+    /**
+     * Expects a JSON array of {@link FeeCreationRequest} objects. A syntax error ends
+     * the import; the rows before it are kept.
+     */
+    @PreAuthorize("hasRole('CREATE')")
+    public FeeImportResponse importJson(InputStream body) {
+        ImportRun run = new ImportRun(currentUserId());
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (nextToken(parser) != JsonToken.START_ARRAY)
+                throw new AppException(ErrorCode.INVALID_IMPORT_FILE);
+
+            try {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token == null) {
+                        run.abort("malformed JSON: unexpected end of input");
+                        break;
+                    }
+
+                    long row = run.nextRow();
+                    if (row < 0)
+                        break;
+
+                    // a whole element is read first, so a bad field only rejects its own row
+                    JsonNode node = parser.readValueAsTree();
+                    try {
+                        run.add(row, objectMapper.treeToValue(node, FeeCreationRequest.class));
+                    } catch (JacksonException e) {
+                        run.reject(row, "invalid fee: " + e.getOriginalMessage());
+                    } catch (IllegalArgumentException e) {
+                        run.reject(row, e.getMessage());
+                    }
+                }
+            } catch (JacksonException e) {
+                run.abort("malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        return run.finish();
+    }
+
+    String currentUserId() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        return userRepository.findByUserName(username)
+                .map(User::getUserId)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
+    }
+
+    static JsonToken nextToken(JsonParser parser) {
+        try {
+            return parser.nextToken();
+        } catch (JacksonException e) {
+            throw new AppException(ErrorCode.INVALID_IMPORT_FILE);
+        }
+    }
+
+    static Map<String, Integer> csvColumns(CsvRecordReader csv) {
+        List<String> header;
+        try {
+            header = csv.next();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_IMPORT_FILE);
+        }
+
+        if (header == null)
+            throw new AppException(ErrorCode.INVALID_IMPORT_FILE);
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++)
+            columns.putIfAbsent(header.get(i).strip().toLowerCase(Locale.ROOT), i);
+
+        if (!columns.containsKey("fee_name") || !columns.containsKey("fee_price"))
+            throw new AppException(ErrorCode.INVALID_IMPORT_FILE);
+
+        return columns;
+    }
+
+    static FeeCreationRequest fromCsv(List<String> record, Map<String, Integer> columns) {
+        String price = column(record, columns, "fee_price");
+        if (price == null)
+            throw new IllegalArgumentException("fee_price is required");
+
+        double feePrice;
+        try {
+            feePrice = Double.parseDouble(price);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("fee_price is not a number");
+        }
+
+        return FeeCreationRequest.builder()
+                .feeName(column(record, columns, "fee_name"))
+                .feePrice(feePrice)
+                .feeDescription(column(record, columns, "fee_description"))
+                .date(parseDate(column(record, columns, "date")))
+                .categoryName(column(record, columns, "category_name"))
+                .build();
+    }
+
+    static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size())
+            return null;
+
+        String value = record.get(index).strip();
+        return value.isEmpty() ? null : value;
+    }
+
+    // ISO instant as written by the export, or a plain date taken as midnight UTC
+    static Date parseDate(String value) {
+        if (value == null)
+            return null;
+
+        try {
+            return value.length() == 10
+                    ? Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant())
+                    : Date.from(Instant.parse(value));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date must be yyyy-MM-dd or an ISO-8601 instant");
+        }
+    }
+
+    static void validate(FeeCreationRequest request) {
+        if (request.getFeeName() == null || request.getFeeName().isBlank())
+            throw new IllegalArgumentException("fee_name is required");
+
+        if (!Double.isFinite(request.getFeePrice()))
+            throw new IllegalArgumentException("fee_price is not a number");
+
+        checkLength("fee_name", request.getFeeName());
+        checkLength("fee_description", request.getFeeDescription());
+        checkLength("category_name", request.getCategoryName());
+    }
+
+    static void checkLength(String column, String value) {
+        if (value != null && value.length() > MAX_TEXT_LENGTH)
+            throw new IllegalArgumentException(column + " is longer than " + MAX_TEXT_LENGTH + " characters");
+    }
+
+    /**
+     * State of one import request: the pending chunk, counters and the error report.
+     */
+    final class ImportRun {
+
+        final String userId;
+        final long startNanos = System.nanoTime();
+
+        final List<Fee> pending = new ArrayList<>(chunkSize);
+        final List<Long> pendingRows = new ArrayList<>(chunkSize);
+        final List<FeeImportResponse.RowError> errors = new ArrayList<>();
+
+        long rows;
+        long imported;
+        long rejected;
+
+        ImportRun(String userId) {
+            this.userId = userId;
+        }
+
+        /**
+         * Number of the next data row, or -1 once {@code fee.import.max-rows} is reached.
+         */
+        long nextRow() {
+            if (rows == maxRows) {
+                abort("row limit of " + maxRows + " reached, the remaining rows were not read");
+                return -1;
+            }
+
+            return ++rows;
+        }
+
+        void add(long row, FeeCreationRequest request) {
+            validate(request);
+
+            Fee fee = feeMapper.toFee(request);
+            fee.setUserId(userId);
+
+            pending.add(fee);
+            pendingRows.add(row);
+
+            if (pending.size() >= chunkSize)
+                flush();
+        }
+
+        void reject(long row, String message) {
+            rejected++;
+
+            if (errors.size() < maxReportedErrors)
+                errors.add(new FeeImportResponse.RowError(row, message));
+        }
+
+        // the input itself is broken, reported on the row after the last one read
+        void abort(String message) {
+            if (errors.size() < maxReportedErrors)
+                errors.add(new FeeImportResponse.RowError(rows + 1, message));
+        }
+
+        void flush() {
+            if (pending.isEmpty())
+                return;
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    feeRepository.saveAll(pending);
+
+                    FeeSummaryDelta delta = new FeeSummaryDelta();
+                    pending.forEach(delta::add);
+                    feeSummaryService.apply(delta);
+
+                    eventPublisher.publishEvent(FeeChangedEvent.saved(userId, pending.stream()
+                            .map(feeMapper::toFeeCreationResponse)
+                            .toList()));
+
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+
+                imported += pending.size();
+            } catch (DataAccessException e) {
+                log.warn("fee import chunk of {} rows failed", pending.size(), e);
+                pendingRows.forEach(row -> reject(row, "could not be stored"));
+            }
+
+            pending.clear();
+            pendingRows.clear();
+        }
+
+        FeeImportResponse finish() {
+            flush();
+
+            long elapsedNanos = System.nanoTime() - startNanos;
+            double rowsPerSecond = elapsedNanos == 0 ? 0 : imported * 1e9 / elapsedNanos;
+
+            importedRows.increment(imported);
+            rejectedRows.increment(rejected);
+            duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            throughput.record(rowsPerSecond);
+
+            log.info("imported {} fees ({} rejected) in {} ms", imported, rejected, elapsedNanos / 1_000_000);
+
+            return FeeImportResponse.builder()
+                    .imported(imported)
+                    .rejected(rejected)
+                    .elapsedMillis(elapsedNanos / 1_000_000)
+                    .rowsPerSecond(Math.round(rowsPerSecond * 10) / 10.0)
+                    .errors(errors)
+                    .build();
+        }
+    }
+}
@@ -3,21 +3,38 @@ package storage.com.box.service;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import storage.com.box.dto.request.FeeCreationRequest;
+import storage.com.box.dto.request.FeeSearchRequest;
 import storage.com.box.dto.request.FeeUpdateRequest;
+import storage.com.box.dto.response.CursorPage;
 import storage.com.box.dto.response.FeeCreationResponse;
+import storage.com.box.dto.response.SlicePage;
 import storage.com.box.entity.Fee;
 import storage.com.box.entity.User;
 import storage.com.box.exception.AppException;
 import storage.com.box.exception.ErrorCode;
 import storage.com.box.mapper.FeeMapper;
 import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.FeeSpecifications;
 import storage.com.box.repository.UserRepository;
 
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 
@@ -30,7 +47,19 @@ public class FeeService {
     UserRepository userRepository;
     FeeRepository feeRepository;
     FeeMapper  feeMapper;
+    FeeSummaryService feeSummaryService;
+    FeeBudgetService feeBudgetService;
+    ApplicationEventPublisher eventPublisher;
 
+    @NonFinal
+    @Value("${fee.page.default-size:50}")
+    int defaultPageSize;
+
+    @NonFinal
+    @Value("${fee.page.max-size:200}")
+    int maxPageSize;
+
+    @Transactional
     @PreAuthorize("hasRole('CREATE')")
     public FeeCreationResponse createFee(FeeCreationRequest request) {
 
@@ -42,28 +71,45 @@ public class FeeService {
         Fee fee = feeMapper.toFee(request);
         fee.setUserId(user.get().getUserId());
 
-        return feeMapper.toFeeCreationResponse(feeRepository.save(fee));
+        fee = feeRepository.save(fee);
+        feeSummaryService.apply(new FeeSummaryDelta().add(fee));
+
+        FeeCreationResponse response = feeMapper.toFeeCreationResponse(fee);
+        response.setOverBudget(feeBudgetService.overBudget(fee));
+        eventPublisher.publishEvent(FeeChangedEvent.saved(fee.getUserId(), List.of(response)));
+
+        return response;
     }
 
+    @Transactional
     @PreAuthorize("hasRole('UPDATE')")
     public FeeCreationResponse updateFee(String feeId, FeeUpdateRequest request) {
 
         Fee fee = feeRepository.findById(feeId)
                 .orElseThrow(() -> new AppException(ErrorCode.FEE_NOT_FOUND));
 
+        FeeSummaryDelta delta = new FeeSummaryDelta().remove(fee);
         feeMapper.updateFee(request, fee);
 
         feeRepository.save(fee);
+        feeSummaryService.apply(delta.add(fee));
 
-        return feeMapper.toFeeCreationResponse(fee);
+        FeeCreationResponse response = feeMapper.toFeeCreationResponse(fee);
+        response.setOverBudget(feeBudgetService.overBudget(fee));
+        eventPublisher.publishEvent(FeeChangedEvent.saved(fee.getUserId(), List.of(response)));
+
+        return response;
     }
 
+    @Transactional
     @PreAuthorize("hasRole('DELETE')")
     public void deleteFee(String feeId) {
-        feeRepository.findById(feeId)
+        Fee fee = feeRepository.findById(feeId)
                 .orElseThrow(()-> new AppException(ErrorCode.FEE_NOT_FOUND));
 
-        feeRepository.deleteById(feeId);
+        feeRepository.delete(fee);
+        feeSummaryService.apply(new FeeSummaryDelta().remove(fee));
+        eventPublisher.publishEvent(FeeChangedEvent.deleted(fee.getUserId(), List.of(feeId)));
     }
 
     @PreAuthorize("hasRole('GET')")
@@ -75,8 +121,13 @@ public class FeeService {
         return feeMapper.toFeeCreationResponse(fee);
     }
 
+    /**
+     * One page of the current user's fees, newest first. {@code cursor} is the
+     * {@code nextCursor} of the previous page (null for the first one) and
+     * {@code size} is capped at {@code fee.page.max-size}.
+     */
     @PreAuthorize("hasRole('GET')")
-    public List<FeeCreationResponse> getUserFee() {
+    public CursorPage<FeeCreationResponse> getUserFee(String cursor, Integer size) {
 
         var context = SecurityContextHolder.getContext();
         String username = context.getAuthentication().getName();
@@ -84,9 +135,106 @@ public class FeeService {
         User user = userRepository.findByUserName(username)
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
 
-        return feeRepository.findByUserId(user.getUserId()).stream()
-                .map(feeMapper::toFeeCreationResponse)
-                .toList();
+        int pageSize = size == null ? defaultPageSize : Math.clamp(size, 1, maxPageSize);
+        FeeCursor after = cursor == null || cursor.isBlank() ? null : FeeCursor.decode(cursor);
+
+        // one extra row tells whether there is a next page
+        List<Fee> fees = feePageAfter(user.getUserId(), after, pageSize + 1);
+
+        boolean hasNext = fees.size() > pageSize;
+        if (hasNext)
+            fees = fees.subList(0, pageSize);
+
+        return CursorPage.<FeeCreationResponse>builder()
+                .items(fees.stream()
+                        .map(feeMapper::toFeeCreationResponse)
+                        .toList())
+                .nextCursor(hasNext ? FeeCursor.after(fees.getLast()).encode() : null)
+                .build();
+    }
+
+    /**
+     * The current user's fees matching every given filter, one page at a time. All
+     * predicates and the sort run in SQL; no total count is computed.
+     */
+    @PreAuthorize("hasRole('GET')")
+    public SlicePage<FeeCreationResponse> searchFees(FeeSearchRequest request) {
+
+        var context = SecurityContextHolder.getContext();
+        String username = context.getAuthentication().getName();
+
+        User user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
+
+        List<Specification<Fee>> filters = new ArrayList<>();
+        filters.add(FeeSpecifications.ownedBy(user.getUserId()));
+
+        if (request.getFrom() != null)
+            filters.add(FeeSpecifications.dateFrom(startOfDay(request.getFrom())));
+        if (request.getTo() != null)
+            filters.add(FeeSpecifications.dateBefore(startOfDay(request.getTo().plusDays(1))));
+        if (request.getCategory() != null && !request.getCategory().isEmpty())
+            filters.add(FeeSpecifications.categoryIn(request.getCategory()));
+        if (request.getMinPrice() != null)
+            filters.add(FeeSpecifications.priceAtLeast(request.getMinPrice()));
+        if (request.getMaxPrice() != null)
+            filters.add(FeeSpecifications.priceAtMost(request.getMaxPrice()));
+        if (request.getQ() != null && !request.getQ().isBlank())
+            filters.add(FeeSpecifications.textContains(request.getQ().strip()));
+
+        int page = request.getPage() == null ? 0 : request.getPage();
+        int size = request.getSize() == null ? defaultPageSize : Math.clamp(request.getSize(), 1, maxPageSize);
+
+        if (page < 0)
+            throw new AppException(ErrorCode.INVALID_SEARCH_REQUEST);
+
+        PageRequest pageRequest = PageRequest.of(page, size, searchSort(request));
+
+        Slice<Fee> slice = feeRepository.findBy(Specification.allOf(filters), query -> query.slice(pageRequest));
+
+        return SlicePage.<FeeCreationResponse>builder()
+                .items(slice.map(feeMapper::toFeeCreationResponse).getContent())
+                .page(page)
+                .size(size)
+                .hasNext(slice.hasNext())
+                .build();
+    }
+
+    static Sort searchSort(FeeSearchRequest request) {
+        Sort.Direction direction = switch (request.getDirection() == null ? "desc" : request.getDirection()) {
+            case "desc" -> Sort.Direction.DESC;
+            case "asc" -> Sort.Direction.ASC;
+            default -> throw new AppException(ErrorCode.INVALID_SEARCH_REQUEST);
+        };
+
+        String property = switch (request.getSort() == null ? "date" : request.getSort()) {
+            case "date" -> "date";
+            case "amount" -> "feePrice";
+            default -> throw new AppException(ErrorCode.INVALID_SEARCH_REQUEST);
+        };
+
+        // fee id breaks ties so pages do not overlap
+        return Sort.by(new Sort.Order(direction, property, Sort.NullHandling.NULLS_LAST),
+                new Sort.Order(direction, "feeId"));
+    }
+
+    static Date startOfDay(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    List<Fee> feePageAfter(String userId, FeeCursor after, int limit) {
+        if (after != null && after.date() == null)
+            return feeRepository.findUndatedPageAfter(userId, after.feeId(), Limit.of(limit));
+
+        List<Fee> fees = new ArrayList<>(after == null
+                ? feeRepository.findFirstDatedPage(userId, Limit.of(limit))
+                : feeRepository.findDatedPageAfter(userId, after.date(), after.feeId(), Limit.of(limit)));
+
+        // dated fees ran out on this page, continue with the undated ones
+        if (fees.size() < limit)
+            fees.addAll(feeRepository.findFirstUndatedPage(userId, Limit.of(limit - fees.size())));
+
+        return fees;
     }
 
 }
@@ -0,0 +1,121 @@
+package storage.com.box.service;
+
+import storage.com.box.dto.response.FeeAnalyticsResponse;
+import storage.com.box.dto.response.FeeStatisticsResponse;
+import storage.com.box.repository.UserCategoryTotal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partial system-wide statistics of one range of user ids, merged with the other
+ * ranges' partials into the final numbers.
+ * <p>
+ * Rows must be added ordered by user so a user's fees can be counted without
+ * remembering every user; ranges are disjoint, so merging never sees a user twice.
+ */
+final class FeeStatistics {
+
+    // inclusive upper bounds of the fees-per-user buckets, a last open bucket follows
+    static final long[] BUCKETS = {1, 5, 10, 50, 100, 500, 1000};
+
+    final Map<String, long[]> categoryCounts = new HashMap<>();
+    final Map<String, Double> categoryTotals = new HashMap<>();
+    final long[] usersPerBucket = new long[BUCKETS.length + 1];
+
+    long activeUsers;
+    long feeCount;
+    double total;
+    long maxFeesPerUser;
+
+    String currentUser;
+    long currentUserFees;
+
+    void add(UserCategoryTotal row) {
+        if (!row.userId().equals(currentUser)) {
+            endUser();
+            currentUser = row.userId();
+        }
+
+        long count = row.feeCount() == null ? 0 : row.feeCount();
+        double sum = row.total() == null ? 0 : row.total();
+
+        currentUserFees += count;
+        feeCount += count;
+        total += sum;
+
+        categoryCounts.computeIfAbsent(row.categoryName(), key -> new long[1])[0] += count;
+        categoryTotals.merge(row.categoryName(), sum, Double::sum);
+    }
+
+    /**
+     * Counts the user of the last added rows, call once after the last row.
+     */
+    FeeStatistics endUser() {
+        if (currentUser != null && currentUserFees > 0) {
+            activeUsers++;
+            maxFeesPerUser = Math.max(maxFeesPerUser, currentUserFees);
+            usersPerBucket[bucketOf(currentUserFees)]++;
+        }
+
+        currentUser = null;
+        currentUserFees = 0;
+
+        return this;
+    }
+
+    FeeStatistics merge(FeeStatistics other) {
+        activeUsers += other.activeUsers;
+        feeCount += other.feeCount;
+        total += other.total;
+        maxFeesPerUser = Math.max(maxFeesPerUser, other.maxFeesPerUser);
+
+        for (int i = 0; i < usersPerBucket.length; i++)
+            usersPerBucket[i] += other.usersPerBucket[i];
+
+        other.categoryCounts.forEach((category, count) ->
+                categoryCounts.computeIfAbsent(category, key -> new long[1])[0] += count[0]);
+        other.categoryTotals.forEach((category, sum) -> categoryTotals.merge(category, sum, Double::sum));
+
+        return this;
+    }
+
+    FeeStatisticsResponse toResponse() {
+        List<FeeAnalyticsResponse.Group> categories = new ArrayList<>();
+        categoryCounts.forEach((category, count) -> categories.add(FeeAnalyticsResponse.Group.builder()
+                .key(category)
+                .count(count[0])
+                .total(categoryTotals.get(category))
+                .build()));
+        categories.sort(Comparator.comparingDouble(FeeAnalyticsResponse.Group::getTotal).reversed());
+
+        List<FeeStatisticsResponse.Bucket> feesPerUser = new ArrayList<>();
+        for (int i = 0; i < usersPerBucket.length; i++)
+            feesPerUser.add(FeeStatisticsResponse.Bucket.builder()
+                    .min(i == 0 ? 1 : BUCKETS[i - 1] + 1)
+                    .max(i < BUCKETS.length ? BUCKETS[i] : null)
+                    .users(usersPerBucket[i])
+                    .build());
+
+        return FeeStatisticsResponse.builder()
+                .activeUsers(activeUsers)
+                .feeCount(feeCount)
+                .total(total)
+                .maxFeesPerUser(maxFeesPerUser)
+                .averageFeesPerUser(activeUsers == 0 ? 0 : (double) feeCount / activeUsers)
+                .categories(categories)
+                .feesPerUser(feesPerUser)
+                .build();
+    }
+
+    static int bucketOf(long fees) {
+        for (int i = 0; i < BUCKETS.length; i++)
+            if (fees <= BUCKETS[i])
+                return i;
+
+        return BUCKETS.length;
+    }
+}
@@ -0,0 +1,329 @@
+package storage.com.box.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.dto.response.StatisticsJobResponse;
+import storage.com.box.enums.StatisticsJobStatus;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserCategoryTotal;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * System-wide fee statistics for admins, computed as background jobs.
+ * <p>
+ * A job splits the {@code fee} table into {@code fee.statistics.partitions} ranges of
+ * user ids (user ids are UUIDs, so hex prefixes spread them evenly) and aggregates the
+ * ranges on a dedicated fork/join pool. Queries hold one of
+ * {@code fee.statistics.max-connections} permits, so a job never takes more than that
+ * many connections away from request handling. The {@link FeeStatistics} partials are
+ * merged on the way back up the fork/join tree.
+ * <p>
+ * Jobs report how many ranges are done and can be cancelled; ranges that have not
+ * started are skipped and running ones stop reading at the next row. A job is kept
+ * while it runs and for {@code fee.statistics.retention-minutes} after it finished.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class FeeStatisticsService {
+
+    FeeRepository feeRepository;
+    TransactionTemplate readOnlyTemplate;
+
+    ForkJoinPool pool;
+    Semaphore connections;
+    Cache<String, Job> jobs;
+    Timer duration;
+
+    List<UserRange> ranges;
+    int maxRunningJobs;
+
+    @Autowired
+    public FeeStatisticsService(FeeRepository feeRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${fee.statistics.partitions:16}") int partitions,
+                                @Value("${fee.statistics.max-connections:4}") int maxConnections,
+                                @Value("${fee.statistics.max-running-jobs:1}") int maxRunningJobs,
+                                @Value("${fee.statistics.query-timeout-seconds:600}") int queryTimeoutSeconds,
+                                @Value("${fee.statistics.retention-minutes:60}") long retentionMinutes) {
+        this(feeRepository, transactionManager, meterRegistry, partitions, maxConnections, maxRunningJobs,
+                queryTimeoutSeconds, retentionMinutes, Ticker.systemTicker());
+    }
+
+    FeeStatisticsService(FeeRepository feeRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         int partitions,
+                         int maxConnections,
+                         int maxRunningJobs,
+                         int queryTimeoutSeconds,
+                         long retentionMinutes,
+                         Ticker ticker) {
+        this.feeRepository = feeRepository;
+
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.readOnlyTemplate.setTimeout(queryTimeoutSeconds);
+
+        // one worker per permit, workers never queue for a connection behind each other
+        this.pool = new ForkJoinPool(maxConnections, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("fee-statistics-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.connections = new Semaphore(maxConnections);
+
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(retainFinished(Duration.ofMinutes(retentionMinutes)))
+                .ticker(ticker)
+                .build();
+        this.duration = Timer.builder("fee.statistics.duration")
+                .register(meterRegistry);
+
+        this.ranges = partitions(partitions);
+        this.maxRunningJobs = maxRunningJobs;
+    }
+
+    // running jobs never expire: they count toward max-running-jobs and stay visible
+    static Expiry<String, Job> retainFinished(Duration retention) {
+        return Expiry.writing((jobId, job) -> job.isActive() ? Duration.ofNanos(Long.MAX_VALUE) : retention);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.asMap().values().forEach(Job::cancel);
+        pool.shutdownNow();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public synchronized StatisticsJobResponse start() {
+        long running = jobs.asMap().values().stream().filter(Job::isActive).count();
+        if (running >= maxRunningJobs)
+            throw new AppException(ErrorCode.STATISTICS_JOB_LIMIT);
+
+        Job job = new Job(UUID.randomUUID().toString(), ranges.size());
+        jobs.put(job.jobId, job);
+
+        pool.execute(() -> run(job));
+        log.info("statistics job {} started over {} user ranges", job.jobId, ranges.size());
+
+        return job.toResponse();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public StatisticsJobResponse getJob(String jobId) {
+        return jobOf(jobId).toResponse();
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public StatisticsJobResponse cancel(String jobId) {
+        Job job = jobOf(jobId);
+        job.cancel();
+
+        return job.toResponse();
+    }
+
+    Job jobOf(String jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null)
+            throw new AppException(ErrorCode.STATISTICS_JOB_NOT_FOUND);
+
+        return job;
+    }
+
+    void run(Job job) {
+        long started = System.nanoTime();
+
+        try {
+            FeeStatistics statistics = new RangeTask(job, ranges).invoke();
+            job.finish(statistics, null);
+        } catch (RuntimeException e) {
+            log.warn("statistics job {} failed", job.jobId, e);
+            job.finish(null, e.getMessage());
+        } finally {
+            duration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            // rewritten so its retention starts now that it is finished
+            jobs.asMap().replace(job.jobId, job, job);
+        }
+
+        log.info("statistics job {} {} after {} of {} ranges",
+                job.jobId, job.status, job.completed.get(), job.totalPartitions);
+    }
+
+    FeeStatistics aggregate(Job job, UserRange range) {
+        FeeStatistics partial = new FeeStatistics();
+
+        if (job.cancelled || !acquire(job))
+            return partial;
+
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> {
+                try (Stream<UserCategoryTotal> rows = feeRepository.streamUserCategoryTotals(range.from(), range.to())) {
+                    Iterator<UserCategoryTotal> iterator = rows.iterator();
+                    while (!job.cancelled && iterator.hasNext())
+                        partial.add(iterator.next());
+                }
+            });
+        } finally {
+            connections.release();
+        }
+
+        if (!job.cancelled)
+            job.completed.incrementAndGet();
+
+        return partial.endUser();
+    }
+
+    boolean acquire(Job job) {
+        try {
+            while (!job.cancelled)
+                if (connections.tryAcquire(100, TimeUnit.MILLISECONDS))
+                    return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return false;
+    }
+
+    /**
+     * Splits the user id space into {@code count} ranges on hex prefixes. The first
+     * range starts at "" and the last one is open, so ids that are not UUIDs are
+     * still counted exactly once.
+     */
+    static List<UserRange> partitions(int count) {
+        if (count < 1 || count > 256 || Integer.bitCount(count) != 1)
+            throw new IllegalArgumentException("fee.statistics.partitions must be a power of two up to 256");
+
+        int digits = count <= 16 ? 1 : 2;
+        int step = (1 << (4 * digits)) / count;
+
+        List<UserRange> ranges = new ArrayList<>(count);
+        String from = "";
+        for (int i = 1; i < count; i++) {
+            String to = String.format("%0" + digits + "x", i * step);
+            ranges.add(new UserRange(from, to));
+            from = to;
+        }
+        ranges.add(new UserRange(from, null));
+
+        return ranges;
+    }
+
+    record UserRange(String from, String to) {
+    }
+
+    /**
+     * Aggregates its ranges by halving them until one range is left.
+     */
+    final class RangeTask extends RecursiveTask<FeeStatistics> {
+
+        final Job job;
+        final List<UserRange> ranges;
+
+        RangeTask(Job job, List<UserRange> ranges) {
+            this.job = job;
+            this.ranges = ranges;
+        }
+
+        @Override
+        protected FeeStatistics compute() {
+            if (ranges.size() == 1)
+                return aggregate(job, ranges.getFirst());
+
+            int middle = ranges.size() / 2;
+            RangeTask left = new RangeTask(job, ranges.subList(0, middle));
+            left.fork();
+
+            FeeStatistics right = new RangeTask(job, ranges.subList(middle, ranges.size())).compute();
+
+            return left.join().merge(right);
+        }
+    }
+
+    static final class Job {
+
+        final String jobId;
+        final int totalPartitions;
+        final Date startedAt = new Date();
+        final AtomicInteger completed = new AtomicInteger();
+
+        volatile boolean cancelled;
+        volatile StatisticsJobStatus status = StatisticsJobStatus.RUNNING;
+        volatile Date finishedAt;
+        volatile String error;
+        volatile FeeStatistics result;
+
+        Job(String jobId, int totalPartitions) {
+            this.jobId = jobId;
+            this.totalPartitions = totalPartitions;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (status == StatisticsJobStatus.RUNNING)
+                status = StatisticsJobStatus.CANCELLING;
+        }
+
+        synchronized void finish(FeeStatistics statistics, String failure) {
+            finishedAt = new Date();
+
+            if (failure != null) {
+                error = failure;
+                status = StatisticsJobStatus.FAILED;
+            } else if (cancelled) {
+                status = StatisticsJobStatus.CANCELLED;
+            } else {
+                result = statistics;
+                status = StatisticsJobStatus.COMPLETED;
+            }
+        }
+
+        boolean isActive() {
+            return status == StatisticsJobStatus.RUNNING || status == StatisticsJobStatus.CANCELLING;
+        }
+
+        synchronized StatisticsJobResponse toResponse() {
+            return StatisticsJobResponse.builder()
+                    .jobId(jobId)
+                    .status(status)
+                    .completedPartitions(completed.get())
+                    .totalPartitions(totalPartitions)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .result(result == null ? null : result.toResponse())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package storage.com.box.service;
+
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.FeeMonthlySummaryId;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Changes to the monthly summary made by one transaction, merged per summary row.
+ * <p>
+ * Call {@link #remove(Fee)} before a fee is modified and {@link #add(Fee)} after, so
+ * an update that keeps month and category only moves the total. Rows are kept in key
+ * order, which makes concurrent transactions lock them in the same order.
+ * Fees without a date belong to no month and are not counted.
+ */
+public final class FeeSummaryDelta {
+
+    final Map<FeeMonthlySummaryId, Totals> changes = new TreeMap<>();
+
+    public FeeSummaryDelta add(Fee fee) {
+        return change(fee, 1);
+    }
+
+    public FeeSummaryDelta remove(Fee fee) {
+        return change(fee, -1);
+    }
+
+    FeeSummaryDelta change(Fee fee, int sign) {
+        if (fee.getDate() == null)
+            return this;
+
+        FeeMonthlySummaryId id = new FeeMonthlySummaryId(fee.getUserId(), monthOf(fee.getDate()),
+                fee.getCategoryName() == null ? "" : fee.getCategoryName());
+
+        Totals totals = changes.computeIfAbsent(id, key -> new Totals());
+        totals.count += sign;
+        totals.total += sign * fee.getFeePrice();
+
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return changes.values().stream().allMatch(Totals::isZero);
+    }
+
+    Map<FeeMonthlySummaryId, Totals> changes() {
+        return Collections.unmodifiableMap(changes);
+    }
+
+    static int monthOf(Date date) {
+        ZonedDateTime utc = Instant.ofEpochMilli(date.getTime()).atZone(ZoneOffset.UTC);
+        return utc.getYear() * 100 + utc.getMonthValue();
+    }
+
+    static final class Totals {
+
+        long count;
+        double total;
+
+        boolean isZero() {
+            return count == 0 && total == 0;
+        }
+    }
+}
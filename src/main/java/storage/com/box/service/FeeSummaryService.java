@@ -0,0 +1,234 @@
+package storage.com.box.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.dto.response.FeeMonthlySummaryResponse;
+import storage.com.box.dto.response.FeeMonthlySummaryResponse.CategoryTotal;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.FeeMonthlySummary;
+import storage.com.box.entity.FeeMonthlySummaryId;
+import storage.com.box.entity.User;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.FeeMonthlySummaryRepository;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Maintains and reads {@link FeeMonthlySummary}.
+ * <p>
+ * Fee writes collect their changes in a {@link FeeSummaryDelta} and {@link #apply}
+ * it in their own transaction. Each row is incremented with an UPDATE; a missing row
+ * is created in that same transaction with the database's upsert, so a concurrent
+ * insert of the same row adds to it instead of failing. A negative change to a
+ * missing row (its fees were never counted) is skipped. When the table is empty at
+ * startup it is rebuilt from the fees.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class FeeSummaryService {
+
+    static final int MAX_RANGE_MONTHS = 120;
+
+    static final String INSERT_SUMMARY = "insert into fee_monthly_summary " +
+            "(user_id, fee_month, category_name, fee_count, total) values (?, ?, ?, ?, ?) ";
+    static final String UPSERT_POSTGRESQL = INSERT_SUMMARY +
+            "on conflict (user_id, fee_month, category_name) do update set " +
+            "fee_count = fee_monthly_summary.fee_count + excluded.fee_count, " +
+            "total = fee_monthly_summary.total + excluded.total";
+    static final String UPSERT_MYSQL = INSERT_SUMMARY +
+            "on duplicate key update fee_count = fee_count + values(fee_count), total = total + values(total)";
+    static final String UPSERT_H2 = "merge into fee_monthly_summary s " +
+            "using (values (cast(? as varchar), cast(? as int), cast(? as varchar), cast(? as bigint), cast(? as double precision))) " +
+            "v (user_id, fee_month, category_name, fee_count, total) " +
+            "on s.user_id = v.user_id and s.fee_month = v.fee_month and s.category_name = v.category_name " +
+            "when matched then update set fee_count = s.fee_count + v.fee_count, total = s.total + v.total " +
+            "when not matched then insert (user_id, fee_month, category_name, fee_count, total) " +
+            "values (v.user_id, v.fee_month, v.category_name, v.fee_count, v.total)";
+
+    FeeMonthlySummaryRepository summaryRepository;
+    FeeRepository feeRepository;
+    UserRepository userRepository;
+    EntityManager entityManager;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+
+    // resolved from the connection on first use
+    @NonFinal
+    volatile String upsert;
+
+    boolean backfillOnStartup;
+
+    public FeeSummaryService(FeeMonthlySummaryRepository summaryRepository,
+                             FeeRepository feeRepository,
+                             UserRepository userRepository,
+                             EntityManager entityManager,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${fee.summary.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.summaryRepository = summaryRepository;
+        this.feeRepository = feeRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.backfillOnStartup = backfillOnStartup;
+
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void load() {
+        if (!backfillOnStartup)
+            return;
+
+        try {
+            backfillIfEmpty();
+        } catch (DataAccessException e) {
+            log.warn("could not backfill the fee summary", e);
+        }
+    }
+
+    /**
+     * Rebuilds the summary from every dated fee, unless it already has rows.
+     */
+    public void backfillIfEmpty() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (summaryRepository.count() > 0)
+                return;
+
+            FeeSummaryDelta delta = new FeeSummaryDelta();
+
+            try (Stream<Fee> fees = feeRepository.streamAllDated()) {
+                fees.forEach(fee -> {
+                    delta.add(fee);
+                    entityManager.detach(fee);
+                });
+            }
+
+            delta.changes().forEach((id, totals) -> entityManager.persist(FeeMonthlySummary.builder()
+                    .id(id)
+                    .feeCount(totals.count)
+                    .total(totals.total)
+                    .build()));
+
+            if (!delta.changes().isEmpty())
+                log.info("fee summary backfilled with {} rows", delta.changes().size());
+        });
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(FeeSummaryDelta delta) {
+        delta.changes().forEach((id, totals) -> {
+            if (!totals.isZero())
+                increment(id, totals.count, totals.total);
+        });
+    }
+
+    void increment(FeeMonthlySummaryId id, long count, double amount) {
+        if (summaryRepository.increment(id.getUserId(), id.getMonth(), id.getCategoryName(), count, amount) > 0)
+            return;
+
+        if (count <= 0) {
+            log.warn("summary row {} is missing, skipped a change of {} fees / {}", id, count, amount);
+            return;
+        }
+
+        upsert(id, count, amount);
+    }
+
+    // inserts the row or adds to it when a concurrent writer created it first
+    void upsert(FeeMonthlySummaryId id, long count, double amount) {
+        jdbcTemplate.update(upsertSql(), id.getUserId(), id.getMonth(), id.getCategoryName(), count, amount);
+    }
+
+    String upsertSql() {
+        if (upsert == null)
+            upsert = upsertSql(jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName()));
+
+        return upsert;
+    }
+
+    static String upsertSql(String databaseProduct) {
+        return switch (databaseProduct) {
+            case "PostgreSQL" -> UPSERT_POSTGRESQL;
+            case "MySQL", "MariaDB" -> UPSERT_MYSQL;
+            case "H2" -> UPSERT_H2;
+            default -> throw new IllegalStateException("no summary upsert for " + databaseProduct);
+        };
+    }
+
+    /**
+     * Months between {@code from} and {@code to} (yyyy-MM, inclusive, UTC) that have
+     * fees, oldest first. Defaults to the last twelve months.
+     */
+    @PreAuthorize("hasRole('GET')")
+    public List<FeeMonthlySummaryResponse> getSummary(String from, String to) {
+        YearMonth toMonth = to == null || to.isBlank() ? YearMonth.now(ZoneOffset.UTC) : parseMonth(to);
+        YearMonth fromMonth = from == null || from.isBlank() ? toMonth.minusMonths(11) : parseMonth(from);
+
+        if (fromMonth.isAfter(toMonth) || fromMonth.until(toMonth, ChronoUnit.MONTHS) >= MAX_RANGE_MONTHS)
+            throw new AppException(ErrorCode.INVALID_SUMMARY_RANGE);
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
+
+        Map<Integer, FeeMonthlySummaryResponse> months = new LinkedHashMap<>();
+
+        for (FeeMonthlySummary row : summaryRepository.findRange(user.getUserId(),
+                monthKey(fromMonth), monthKey(toMonth))) {
+            int month = row.getId().getMonth();
+
+            FeeMonthlySummaryResponse summary = months.computeIfAbsent(month, key -> FeeMonthlySummaryResponse.builder()
+                    .month(YearMonth.of(key / 100, key % 100).toString())
+                    .categories(new ArrayList<>())
+                    .build());
+
+            summary.setCount(summary.getCount() + row.getFeeCount());
+            summary.setTotal(summary.getTotal() + row.getTotal());
+            summary.getCategories().add(CategoryTotal.builder()
+                    .categoryName(row.getId().getCategoryName().isEmpty() ? null : row.getId().getCategoryName())
+                    .count(row.getFeeCount())
+                    .total(row.getTotal())
+                    .build());
+        }
+
+        return List.copyOf(months.values());
+    }
+
+    static YearMonth parseMonth(String value) {
+        try {
+            return YearMonth.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new AppException(ErrorCode.INVALID_SUMMARY_RANGE);
+        }
+    }
+
+    static int monthKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+}
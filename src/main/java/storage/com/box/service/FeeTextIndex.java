@@ -0,0 +1,199 @@
+package storage.com.box.service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the names and descriptions of one user's fees.
+ * <p>
+ * Text is lower-cased, stripped of diacritics and split into letter / digit tokens.
+ * A query term matches a token exactly, as a prefix, or (from three characters on)
+ * anywhere inside it through a trigram → token map. Every term has to match; fees are
+ * ranked by how well they matched, then newest first.
+ */
+final class FeeTextIndex {
+
+    static final int NGRAM = 3;
+
+    static final int EXACT_SCORE = 3;
+    static final int PREFIX_SCORE = 2;
+    static final int INFIX_SCORE = 1;
+
+    static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    final Map<String, Doc> docs = new HashMap<>();
+    final NavigableMap<String, Set<String>> postings = new TreeMap<>();
+    final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    void put(String feeId, String feeName, String feeDescription, long dateMillis) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(feeId);
+
+            Set<String> tokens = new LinkedHashSet<>(tokenize(feeName));
+            tokens.addAll(tokenize(feeDescription));
+
+            docs.put(feeId, new Doc(tokens.toArray(String[]::new), dateMillis));
+
+            for (String token : tokens) {
+                Set<String> feeIds = postings.get(token);
+                if (feeIds == null) {
+                    postings.put(token, feeIds = new HashSet<>());
+                    trigramsOf(token).forEach(trigram -> trigrams.computeIfAbsent(trigram, key -> new HashSet<>()).add(token));
+                }
+
+                feeIds.add(feeId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String feeId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(feeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeLocked(String feeId) {
+        Doc doc = docs.remove(feeId);
+        if (doc == null)
+            return;
+
+        for (String token : doc.tokens()) {
+            Set<String> feeIds = postings.get(token);
+            feeIds.remove(feeId);
+
+            if (!feeIds.isEmpty())
+                continue;
+
+            postings.remove(token);
+            for (String trigram : trigramsOf(token)) {
+                Set<String> tokens = trigrams.get(trigram);
+                tokens.remove(token);
+
+                if (tokens.isEmpty())
+                    trigrams.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Ids of the best {@code limit} fees matching every term of {@code query}.
+     */
+    List<String> search(String query, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        if (terms.isEmpty())
+            return List.of();
+
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> scores = null;
+
+            for (String term : terms) {
+                Map<String, Integer> termScores = match(term);
+
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((feeId, score) -> score + termScores.get(feeId));
+                }
+
+                if (scores.isEmpty())
+                    return List.of();
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Comparator.<Map.Entry<String, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                            .thenComparing(entry -> docs.get(entry.getKey()).dateMillis(), Comparator.reverseOrder())
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // best score of each fee for one term
+    Map<String, Integer> match(String term) {
+        Map<String, Integer> scores = new HashMap<>();
+
+        postings.subMap(term, true, term + Character.MAX_VALUE, false).forEach((token, feeIds) -> {
+            int score = token.equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+            feeIds.forEach(feeId -> scores.merge(feeId, score, Math::max));
+        });
+
+        if (term.length() < NGRAM)
+            return scores;
+
+        Set<String> candidates = null;
+        for (String trigram : trigramsOf(term)) {
+            Set<String> tokens = trigrams.get(trigram);
+            if (tokens == null)
+                return scores;
+
+            if (candidates == null) {
+                candidates = new HashSet<>(tokens);
+            } else {
+                candidates.retainAll(tokens);
+            }
+        }
+
+        for (String token : candidates) {
+            // trigrams only narrow the candidates down, the substring check decides
+            if (!token.startsWith(term) && token.contains(term))
+                postings.get(token).forEach(feeId -> scores.merge(feeId, INFIX_SCORE, Math::max));
+        }
+
+        return scores;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank())
+            return List.of();
+
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .replace('đ', 'd')
+                .replace('Đ', 'd')
+                .toLowerCase(Locale.ROOT);
+
+        return Arrays.stream(SEPARATORS.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    static Set<String> trigramsOf(String token) {
+        if (token.length() < NGRAM)
+            return Set.of();
+
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + NGRAM <= token.length(); i++)
+            result.add(token.substring(i, i + NGRAM));
+
+        return result;
+    }
+
+    record Doc(String[] tokens, long dateMillis) {
+    }
+}
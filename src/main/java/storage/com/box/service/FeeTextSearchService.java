@@ -0,0 +1,150 @@
+package storage.com.box.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.dto.response.FeeCreationResponse;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.User;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.mapper.FeeMapper;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over the current user's fee names and descriptions.
+ * <p>
+ * Each user's {@link FeeTextIndex} is built from their fees on the first search and
+ * then patched by {@link FeeChangedEvent}s after every committed write, so a search
+ * only reads the index and loads the matched fees by id. At most
+ * {@code fee.text-index.max-users} indexes are kept, idle ones expire. Changes that
+ * land while an index is being built are applied before it is published, see
+ * {@link PatchableCache}.
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class FeeTextSearchService {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    UserRepository userRepository;
+    FeeRepository feeRepository;
+    FeeMapper feeMapper;
+    EntityManager entityManager;
+    TransactionTemplate readOnlyTemplate;
+
+    PatchableCache<FeeTextIndex> indexes;
+
+    public FeeTextSearchService(UserRepository userRepository,
+                                FeeRepository feeRepository,
+                                FeeMapper feeMapper,
+                                EntityManager entityManager,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${fee.text-index.max-users:1000}") long maxUsers,
+                                @Value("${fee.text-index.expire-after-access-minutes:30}") long expireAfterAccessMinutes) {
+        this.userRepository = userRepository;
+        this.feeRepository = feeRepository;
+        this.feeMapper = feeMapper;
+        this.entityManager = entityManager;
+
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+
+        Cache<String, FeeTextIndex> cache = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "fee.text-index");
+        this.indexes = new PatchableCache<>(cache);
+    }
+
+    @PreAuthorize("hasRole('GET')")
+    public List<FeeCreationResponse> search(String query, Integer limit) {
+        if (query == null || query.isBlank())
+            return List.of();
+
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByUserName(username)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
+
+        int size = limit == null ? DEFAULT_LIMIT : Math.clamp(limit, 1, MAX_LIMIT);
+
+        List<String> feeIds = indexOf(user.getUserId()).search(query, size);
+        if (feeIds.isEmpty())
+            return List.of();
+
+        Map<String, Fee> fees = feeRepository.findAllById(feeIds).stream()
+                .filter(fee -> user.getUserId().equals(fee.getUserId()))
+                .collect(Collectors.toMap(Fee::getFeeId, Function.identity()));
+
+        // keep the ranking of the index
+        return feeIds.stream()
+                .map(fees::get)
+                .filter(Objects::nonNull)
+                .map(feeMapper::toFeeCreationResponse)
+                .toList();
+    }
+
+    FeeTextIndex indexOf(String userId) {
+        return indexes.get(userId, this::build);
+    }
+
+    /**
+     * Patches the index of the user if it is built or being built; re-applying a change
+     * the build already saw is harmless.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFeeChanged(FeeChangedEvent event) {
+        indexes.patch(event.userId(), index -> {
+            event.saved().forEach(fee -> index.put(fee.getFeeId(), fee.getFeeName(), fee.getFeeDescription(),
+                    fee.getDate() == null ? Long.MIN_VALUE : fee.getDate().getTime()));
+            event.deletedIds().forEach(index::remove);
+
+            return index;
+        });
+    }
+
+    FeeTextIndex build(String userId) {
+        long start = System.nanoTime();
+        FeeTextIndex index = new FeeTextIndex();
+
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<Fee> fees = feeRepository.streamByUserId(userId)) {
+                fees.forEach(fee -> {
+                    index.put(fee.getFeeId(), fee.getFeeName(), fee.getFeeDescription(),
+                            fee.getDate() == null ? Long.MIN_VALUE : fee.getDate().getTime());
+                    entityManager.detach(fee);
+                });
+            }
+        });
+
+        log.debug("text index of {} built with {} fees in {} ms", userId, index.size(),
+                (System.nanoTime() - start) / 1_000_000);
+
+        return index;
+    }
+}
@@ -0,0 +1,98 @@
+package storage.com.box.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.repository.InvalidTokenRepository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Removes {@code invalidateToken} rows whose {@code exp} has passed.
+ * <p>
+ * Rows are deleted in batches of {@code jwt.revocation.purge.batch-size}, each
+ * batch in its own short transaction, so the job never holds locks long enough
+ * to get in the way of logout / refresh inserts.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class InvalidTokenPurgeJob {
+
+    InvalidTokenRepository invalidTokenRepository;
+    TransactionTemplate transactionTemplate;
+
+    int batchSize;
+    int maxBatchesPerRun;
+
+    Counter purged;
+    Timer duration;
+
+    public InvalidTokenPurgeJob(InvalidTokenRepository invalidTokenRepository,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${jwt.revocation.purge.batch-size:500}") int batchSize,
+                                @Value("${jwt.revocation.purge.max-batches-per-run:200}") int maxBatchesPerRun) {
+        this.invalidTokenRepository = invalidTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        this.purged = Counter.builder("auth.revocation.purge.rows")
+                .register(meterRegistry);
+        this.duration = Timer.builder("auth.revocation.purge.duration")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge.interval-ms:600000}",
+            initialDelayString = "${jwt.revocation.purge.interval-ms:600000}")
+    public void scheduledPurge() {
+        try {
+            purgeExpired();
+        } catch (RuntimeException e) {
+            log.warn("purging expired tokens failed", e);
+        }
+    }
+
+    public int purgeExpired() {
+        return duration.record(() -> {
+            Date now = new Date();
+            int total = 0;
+
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int deleted = transactionTemplate.execute(status -> deleteBatch(now));
+                total += deleted;
+
+                if (deleted < batchSize)
+                    break;
+            }
+
+            if (total > 0)
+                log.info("purged {} expired tokens", total);
+
+            return total;
+        });
+    }
+
+    int deleteBatch(Date now) {
+        List<String> ids = invalidTokenRepository.findExpiredIds(now, PageRequest.of(0, batchSize));
+
+        if (ids.isEmpty())
+            return 0;
+
+        invalidTokenRepository.deleteAllByIdInBatch(ids);
+        purged.increment(ids.size());
+
+        return ids.size();
+    }
+}
@@ -0,0 +1,167 @@
+package storage.com.box.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Limits login attempts per username and per client IP with sliding-window
+ * counters, so credential stuffing is turned away before any user lookup or
+ * password hashing.
+ * <p>
+ * Each key owns a small ring of lock-free slots (see {@link SlidingWindow}). The
+ * windows live in Caffeine caches bounded by {@code security.login-throttle.max-keys}
+ * that drop a key once it has been idle for a whole window, so spraying new usernames
+ * or addresses cannot grow them without limit. The IP is checked first: a throttled
+ * address does not get to add username windows.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class LoginThrottle {
+
+    static final int SLOTS = 6;
+
+    boolean enabled;
+    int maxPerUsername;
+    int maxPerIp;
+    long windowMillis;
+    long slotMillis;
+
+    Cache<String, SlidingWindow> usernames;
+    Cache<String, SlidingWindow> ips;
+
+    Counter throttledUsername;
+    Counter throttledIp;
+
+    public LoginThrottle(@Value("${security.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${security.login-throttle.per-username:10}") int maxPerUsername,
+                         @Value("${security.login-throttle.per-ip:50}") int maxPerIp,
+                         @Value("${security.login-throttle.window-seconds:60}") long windowSeconds,
+                         @Value("${security.login-throttle.max-keys:100000}") long maxKeys,
+                         MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerIp = maxPerIp;
+        this.windowMillis = windowSeconds * 1000;
+        this.slotMillis = Math.max(1, windowMillis / SLOTS);
+        this.usernames = windows(maxKeys, windowMillis);
+        this.ips = windows(maxKeys, windowMillis);
+
+        this.throttledUsername = Counter.builder("auth.login.throttled")
+                .tag("dimension", "username")
+                .register(meterRegistry);
+        this.throttledIp = Counter.builder("auth.login.throttled")
+                .tag("dimension", "ip")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.login.throttle.keys", this, LoginThrottle::trackedKeys)
+                .register(meterRegistry);
+    }
+
+    static Cache<String, SlidingWindow> windows(long maxKeys, long windowMillis) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMillis(windowMillis))
+                .build();
+    }
+
+    /**
+     * Counts one attempt, or throws {@link ErrorCode#TOO_MANY_LOGIN_ATTEMPTS} when
+     * the username or the IP has used up its window. A null IP is not limited.
+     */
+    public void acquire(String userName, String clientIp) {
+        if (!enabled)
+            return;
+
+        long now = System.currentTimeMillis();
+
+        SlidingWindow ipWindow = clientIp == null ? null : ips.get(clientIp, key -> new SlidingWindow());
+
+        if (ipWindow != null && !ipWindow.tryAcquire(now, slotMillis, maxPerIp)) {
+            throttledIp.increment();
+            throw new AppException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS, retryAfterSeconds());
+        }
+
+        String userKey = userName == null ? "" : userName.toLowerCase(Locale.ROOT);
+        SlidingWindow userWindow = usernames.get(userKey, key -> new SlidingWindow());
+
+        if (!userWindow.tryAcquire(now, slotMillis, maxPerUsername)) {
+            // the IP slot was taken for an attempt that never happens
+            if (ipWindow != null)
+                ipWindow.release(now, slotMillis);
+            throttledUsername.increment();
+            throw new AppException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS, retryAfterSeconds());
+        }
+    }
+
+    long trackedKeys() {
+        return usernames.estimatedSize() + ips.estimatedSize();
+    }
+
+    long retryAfterSeconds() {
+        return Math.max(1, slotMillis / 1000);
+    }
+
+    /**
+     * Ring of {@link #SLOTS} counters, each tagged with the slot number (time / slot
+     * length) it currently counts for. A slot whose tag is older than the window is
+     * reset on first use. Concurrent resets may lose a handful of attempts, which is
+     * fine for throttling.
+     */
+    static final class SlidingWindow {
+
+        final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+        final AtomicLongArray epochs = new AtomicLongArray(SLOTS);
+
+        boolean tryAcquire(long now, long slotMillis, int max) {
+            long epoch = now / slotMillis;
+            int slot = (int) (epoch % SLOTS);
+
+            long current = epochs.get(slot);
+            if (current != epoch && epochs.compareAndSet(slot, current, epoch))
+                counts.set(slot, 0);
+
+            counts.incrementAndGet(slot);
+
+            if (sum(epoch) > max) {
+                counts.decrementAndGet(slot);
+                return false;
+            }
+
+            return true;
+        }
+
+        void release(long now, long slotMillis) {
+            long epoch = now / slotMillis;
+            int slot = (int) (epoch % SLOTS);
+
+            if (epochs.get(slot) == epoch)
+                counts.decrementAndGet(slot);
+        }
+
+        long sum(long epoch) {
+            long total = 0;
+
+            for (int slot = 0; slot < SLOTS; slot++) {
+                if (epoch - epochs.get(slot) < SLOTS)
+                    total += counts.get(slot);
+            }
+
+            return total;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package storage.com.box.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-user values built from the database and then kept current by patches.
+ * <p>
+ * Builds run outside Caffeine: a patch that arrives while a user's value is being
+ * built is queued and applied to the built value before it is published, so writes
+ * committed after the build's snapshot are not lost. Only one build per user runs at
+ * a time, concurrent readers wait for it. Patches must tolerate being applied to a
+ * value whose snapshot already contains the change.
+ */
+final class PatchableCache<V> {
+
+    final Cache<String, V> cache;
+    final ConcurrentHashMap<String, Build<V>> builds = new ConcurrentHashMap<>();
+
+    PatchableCache(Cache<String, V> cache) {
+        this.cache = cache;
+    }
+
+    V get(String userId, Function<String, V> builder) {
+        V cached = cache.getIfPresent(userId);
+        if (cached != null)
+            return cached;
+
+        Build<V> build = new Build<>();
+        Build<V> running = builds.putIfAbsent(userId, build);
+        if (running != null)
+            return running.await();
+
+        try {
+            V value = builder.apply(userId);
+
+            synchronized (build) {
+                for (UnaryOperator<V> change : build.changes)
+                    value = change.apply(value);
+
+                cache.put(userId, value);
+                builds.remove(userId, build);
+                build.done = true;
+            }
+
+            build.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            synchronized (build) {
+                builds.remove(userId, build);
+                build.done = true;
+            }
+
+            build.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Applies {@code change} to the user's value if it is cached or being built.
+     */
+    void patch(String userId, UnaryOperator<V> change) {
+        Build<V> build = builds.get(userId);
+        if (build != null) {
+            synchronized (build) {
+                if (!build.done) {
+                    build.changes.add(change);
+                    return;
+                }
+            }
+        }
+
+        // a finished build has published its value before it was marked done
+        cache.asMap().computeIfPresent(userId, (key, value) -> change.apply(value));
+    }
+
+    static final class Build<V> {
+
+        final List<UnaryOperator<V>> changes = new ArrayList<>();
+        final CompletableFuture<V> result = new CompletableFuture<>();
+
+        boolean done;
+
+        V await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException)
+                    throw runtimeException;
+                if (e.getCause() instanceof Error error)
+                    throw error;
+                throw e;
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class PermissionService {
 
     PermissionRepository permissionRepository;
     PermissionMapper permissionMapper;
+    RoleScopeSnapshot roleScopeSnapshot;
 
     @PreAuthorize("hasRole('ADMIN')")
     public PermissionResponse createPermission(PermissionCreationRequest request)
@@ -46,5 +47,6 @@ public class PermissionService {
     public void deletePermission(String permission)
             throws AppException {
         permissionRepository.deleteById(permission);
+        roleScopeSnapshot.removePermission(permission);
     }
 }
@@ -0,0 +1,223 @@
+package storage.com.box.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.RecurringFee;
+import storage.com.box.mapper.FeeMapper;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.RecurringFeeRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Materializes the due occurrences of every {@link RecurringFee} into fees.
+ * <p>
+ * Each run works in chunks of at most {@code fee.recurring.chunk-size} occurrences,
+ * one transaction per chunk: the due templates are locked, their occurrences up to
+ * now are inserted with a single JDBC batch and the templates' next runs are moved
+ * past them. A template far behind (e.g. after downtime) is caught up over several
+ * chunks, oldest occurrences first.
+ * <p>
+ * Occurrence ids are derived from the template id and the occurrence time, so fees
+ * that already exist are skipped and re-running a chunk never duplicates them.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class RecurringFeeGenerator {
+
+    static final String INSERT_FEE = "insert into fee " +
+            "(fee_id, fee_name, fee_price, fee_description, date, category_name, user_id) " +
+            "values (?, ?, ?, ?, ?, ?, ?)";
+
+    RecurringFeeRepository recurringFeeRepository;
+    FeeRepository feeRepository;
+    FeeSummaryService feeSummaryService;
+    FeeMapper feeMapper;
+    ApplicationEventPublisher eventPublisher;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate transactionTemplate;
+
+    int chunkSize;
+    int maxChunksPerRun;
+
+    Counter generated;
+    Timer duration;
+
+    public RecurringFeeGenerator(RecurringFeeRepository recurringFeeRepository,
+                                 FeeRepository feeRepository,
+                                 FeeSummaryService feeSummaryService,
+                                 FeeMapper feeMapper,
+                                 ApplicationEventPublisher eventPublisher,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${fee.recurring.chunk-size:1000}") int chunkSize,
+                                 @Value("${fee.recurring.max-chunks-per-run:100}") int maxChunksPerRun) {
+        this.recurringFeeRepository = recurringFeeRepository;
+        this.feeRepository = feeRepository;
+        this.feeSummaryService = feeSummaryService;
+        this.feeMapper = feeMapper;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+
+        this.generated = Counter.builder("fee.recurring.generated")
+                .register(meterRegistry);
+        this.duration = Timer.builder("fee.recurring.duration")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${fee.recurring.interval-ms:60000}",
+            initialDelayString = "${fee.recurring.interval-ms:60000}")
+    public void scheduledRun() {
+        try {
+            generateDue();
+        } catch (RuntimeException e) {
+            log.warn("generating recurring fees failed", e);
+        }
+    }
+
+    public int generateDue() {
+        return duration.record(() -> {
+            Date now = new Date();
+            int total = 0;
+
+            for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+                Chunk result = transactionTemplate.execute(status -> generateChunk(now));
+                total += result.inserted();
+
+                if (result.templates() == 0)
+                    break;
+            }
+
+            if (total > 0)
+                log.info("generated {} recurring fees", total);
+
+            return total;
+        });
+    }
+
+    Chunk generateChunk(Date now) {
+        List<RecurringFee> due = recurringFeeRepository.findDue(now, Limit.of(chunkSize));
+        if (due.isEmpty())
+            return new Chunk(0, 0);
+
+        List<Fee> fees = new ArrayList<>();
+        for (RecurringFee template : due) {
+            if (fees.size() >= chunkSize)
+                break;
+
+            materialize(template, now, chunkSize - fees.size(), fees);
+        }
+
+        Set<String> existing = fees.isEmpty()
+                ? Set.of()
+                : new HashSet<>(feeRepository.findExistingIds(fees.stream().map(Fee::getFeeId).toList()));
+        List<Fee> fresh = fees.stream()
+                .filter(fee -> !existing.contains(fee.getFeeId()))
+                .toList();
+
+        if (!fresh.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_FEE, fresh, fresh.size(), (statement, fee) -> {
+                statement.setString(1, fee.getFeeId());
+                statement.setString(2, fee.getFeeName());
+                statement.setDouble(3, fee.getFeePrice());
+                statement.setString(4, fee.getFeeDescription());
+                statement.setTimestamp(5, new Timestamp(fee.getDate().getTime()));
+                statement.setString(6, fee.getCategoryName());
+                statement.setString(7, fee.getUserId());
+            });
+
+            FeeSummaryDelta delta = new FeeSummaryDelta();
+            fresh.forEach(delta::add);
+            feeSummaryService.apply(delta);
+
+            fresh.stream()
+                    .collect(Collectors.groupingBy(Fee::getUserId, LinkedHashMap::new, Collectors.toList()))
+                    .forEach((userId, userFees) -> eventPublisher.publishEvent(FeeChangedEvent.saved(userId,
+                            userFees.stream().map(feeMapper::toFeeCreationResponse).toList())));
+
+            generated.increment(fresh.size());
+        }
+
+        return new Chunk(due.size(), fresh.size());
+    }
+
+    /**
+     * Adds at most {@code budget} occurrences of {@code template} up to {@code now} and
+     * moves its next run past them.
+     */
+    static void materialize(RecurringFee template, Date now, int budget, List<Fee> out) {
+        CronExpression cron;
+        try {
+            cron = CronExpression.parse(template.getCron());
+        } catch (IllegalArgumentException e) {
+            log.warn("recurring fee {} has an invalid schedule and is stopped", template.getRecurringFeeId(), e);
+            template.setNextRun(null);
+            return;
+        }
+
+        Date next = template.getNextRun();
+        while (next != null && !next.after(now) && budget-- > 0) {
+            out.add(occurrence(template, next));
+            next = nextRun(cron, next, template.getEndAt());
+        }
+
+        template.setNextRun(next);
+    }
+
+    static Fee occurrence(RecurringFee template, Date date) {
+        return Fee.builder()
+                .feeId(occurrenceId(template.getRecurringFeeId(), date))
+                .feeName(template.getFeeName())
+                .feePrice(template.getFeePrice())
+                .feeDescription(template.getFeeDescription())
+                .date(date)
+                .categoryName(template.getCategoryName())
+                .userId(template.getUserId())
+                .build();
+    }
+
+    static String occurrenceId(String recurringFeeId, Date date) {
+        return UUID.nameUUIDFromBytes((recurringFeeId + "@" + date.getTime()).getBytes(StandardCharsets.UTF_8))
+                .toString();
+    }
+
+    /**
+     * First occurrence after {@code after}, null when there is none up to {@code endAt}.
+     */
+    static Date nextRun(CronExpression cron, Date after, Date endAt) {
+        ZonedDateTime next = cron.next(after.toInstant().atZone(ZoneOffset.UTC));
+        if (next == null)
+            return null;
+
+        Date date = Date.from(next.toInstant());
+
+        return endAt != null && date.after(endAt) ? null : date;
+    }
+
+    record Chunk(int templates, int inserted) {
+    }
+}
@@ -0,0 +1,106 @@
+package storage.com.box.service;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import storage.com.box.dto.request.RecurringFeeRequest;
+import storage.com.box.dto.response.RecurringFeeResponse;
+import storage.com.box.entity.RecurringFee;
+import storage.com.box.entity.User;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.mapper.RecurringFeeMapper;
+import storage.com.box.repository.RecurringFeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Recurring fee templates of the current user. The fees themselves are created by
+ * {@link RecurringFeeGenerator}.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class RecurringFeeService {
+
+    RecurringFeeRepository recurringFeeRepository;
+    UserRepository userRepository;
+    RecurringFeeMapper recurringFeeMapper;
+
+    @NonFinal
+    @Value("${fee.recurring.min-interval-minutes:60}")
+    long minIntervalMinutes;
+
+    @PreAuthorize("hasRole('CREATE')")
+    public RecurringFeeResponse createRecurringFee(RecurringFeeRequest request) {
+        Date start = request.getStartAt() == null ? new Date() : request.getStartAt();
+        CronExpression cron = parseCron(request.getCron());
+
+        if (request.getEndAt() != null && !request.getEndAt().after(start))
+            throw new AppException(ErrorCode.INVALID_RECURRING_FEE);
+
+        Date first = RecurringFeeGenerator.nextRun(cron, start, request.getEndAt());
+        if (first == null)
+            throw new AppException(ErrorCode.INVALID_RECURRING_FEE);
+
+        // keeps every-second / every-minute schedules from flooding the fee table
+        Date second = RecurringFeeGenerator.nextRun(cron, first, null);
+        if (second != null && second.getTime() - first.getTime() < Duration.ofMinutes(minIntervalMinutes).toMillis())
+            throw new AppException(ErrorCode.INVALID_RECURRING_FEE);
+
+        RecurringFee recurringFee = recurringFeeMapper.toRecurringFee(request);
+        recurringFee.setUserId(currentUser().getUserId());
+        recurringFee.setNextRun(first);
+
+        return recurringFeeMapper.toRecurringFeeResponse(recurringFeeRepository.save(recurringFee));
+    }
+
+    @PreAuthorize("hasRole('GET')")
+    public List<RecurringFeeResponse> getRecurringFees() {
+        return recurringFeeRepository.findByUserIdOrderByFeeName(currentUser().getUserId())
+                .stream()
+                .map(recurringFeeMapper::toRecurringFeeResponse)
+                .toList();
+    }
+
+    /**
+     * Stops the schedule; fees it already created are kept.
+     */
+    @PreAuthorize("hasRole('DELETE')")
+    public void deleteRecurringFee(String recurringFeeId) {
+        RecurringFee recurringFee = recurringFeeRepository.findById(recurringFeeId)
+                .filter(found -> found.getUserId().equals(currentUser().getUserId()))
+                .orElseThrow(() -> new AppException(ErrorCode.RECURRING_FEE_NOT_FOUND));
+
+        recurringFeeRepository.delete(recurringFee);
+    }
+
+    User currentUser() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        return userRepository.findByUserName(username)
+                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXIST));
+    }
+
+    static CronExpression parseCron(String cron) {
+        if (cron == null || cron.isBlank())
+            throw new AppException(ErrorCode.INVALID_RECURRING_FEE);
+
+        try {
+            return CronExpression.parse(cron);
+        } catch (IllegalArgumentException e) {
+            throw new AppException(ErrorCode.INVALID_RECURRING_FEE);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package storage.com.box.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Local checkpoint of the revoked token set, read back at startup so only the
+ * revocations made since the checkpoint have to come from the database.
+ * <p>
+ * Layout (big-endian): magic, version, checkpoint time in epoch millis, entry
+ * count, then {@code (jti hash, exp millis)} pairs sorted by hash. The file is
+ * written to a temporary sibling and moved into place, so a reader never sees a
+ * half-written checkpoint.
+ */
+@Slf4j
+final class RevocationSnapshotFile {
+
+    static final int MAGIC = 0x42585256; // "BXRV"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    static final int ENTRY_BYTES = 8 + 8;
+
+    private RevocationSnapshotFile() {
+    }
+
+    /**
+     * @param hashes sorted ascending, {@code exps[i]} belongs to {@code hashes[i]}
+     */
+    static void write(Path path, long checkpointMillis, long[] hashes, long[] exps) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        long size = HEADER_BYTES + (long) hashes.length * ENTRY_BYTES;
+
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(checkpointMillis)
+                    .putInt(hashes.length);
+
+            for (int i = 0; i < hashes.length; i++)
+                buffer.putLong(hashes[i]).putLong(exps[i]);
+
+            buffer.force();
+        }
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps the file and returns its content, or null when it is missing or not a
+     * valid checkpoint.
+     */
+    static Snapshot read(Path path) throws IOException {
+        if (!Files.isRegularFile(path))
+            return null;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size < HEADER_BYTES)
+                return invalid(path);
+
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                return invalid(path);
+
+            long checkpointMillis = buffer.getLong();
+            int count = buffer.getInt();
+
+            if (count < 0 || size != HEADER_BYTES + (long) count * ENTRY_BYTES)
+                return invalid(path);
+
+            return new Snapshot(checkpointMillis, count, buffer.slice());
+        }
+    }
+
+    static Snapshot invalid(Path path) {
+        log.warn("ignoring invalid revocation snapshot {}", path);
+        return null;
+    }
+
+    /**
+     * Mapped entries of a checkpoint; the mapping stays valid after the channel is
+     * closed.
+     */
+    record Snapshot(long checkpointMillis, int count, ByteBuffer entries) {
+
+        long hash(int index) {
+            return entries.getLong(index * ENTRY_BYTES);
+        }
+
+        long exp(int index) {
+            return entries.getLong(index * ENTRY_BYTES + 8);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package storage.com.box.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import storage.com.box.entity.Permission;
+import storage.com.box.entity.Role;
+import storage.com.box.repository.RoleRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, versioned copy of the role → permission graph used to build the
+ * {@code scope} claim without touching the database.
+ * <p>
+ * The graph is fetched with a single query at startup and patched by
+ * {@link RoleService} / {@link PermissionService} when they change it. Roles that
+ * are not in the snapshot (e.g. created directly through the repository) fall back
+ * to the permissions loaded on the entity itself.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class RoleScopeSnapshot {
+
+    RoleRepository roleRepository;
+
+    @NonFinal
+    volatile Snapshot snapshot = new Snapshot(0, Map.of());
+
+    @PostConstruct
+    void load() {
+        try {
+            refresh();
+        } catch (DataAccessException e) {
+            log.warn("could not load role snapshot, scopes are built from the entities", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${roles.snapshot.refresh-interval-ms:300000}",
+            initialDelayString = "${roles.snapshot.refresh-interval-ms:300000}")
+    void scheduledRefresh() {
+        load();
+    }
+
+    public synchronized void refresh() {
+        Map<String, List<String>> permissions = new HashMap<>();
+
+        roleRepository.findAllWithPermissions()
+                .forEach(role -> permissions.put(role.getName(), permissionNames(role)));
+
+        replace(permissions);
+        log.info("role snapshot v{} loaded with {} roles", snapshot.version(), permissions.size());
+    }
+
+    public synchronized void putRole(Role role) {
+        Map<String, List<String>> permissions = new HashMap<>(snapshot.permissions());
+        permissions.put(role.getName(), permissionNames(role));
+
+        replace(permissions);
+    }
+
+    public synchronized void removeRole(String roleName) {
+        Map<String, List<String>> permissions = new HashMap<>(snapshot.permissions());
+        permissions.remove(roleName);
+
+        replace(permissions);
+    }
+
+    public synchronized void removePermission(String permissionName) {
+        Map<String, List<String>> permissions = new HashMap<>();
+
+        snapshot.permissions().forEach((role, names) -> permissions.put(role,
+                names.stream().filter(name -> !name.equals(permissionName)).toList()));
+
+        replace(permissions);
+    }
+
+    public long version() {
+        return snapshot.version();
+    }
+
+    /**
+     * Space separated role and permission names of the given roles, in the same
+     * layout as the {@code scope} claim.
+     */
+    public String scopeOf(Collection<Role> roles) {
+        Snapshot current = snapshot;
+
+        List<String> roleNames = roles.stream().map(Role::getName).sorted().toList();
+
+        String cached = current.scopes().get(roleNames);
+        if (cached != null)
+            return cached;
+
+        boolean complete = true;
+        StringJoiner stringJoiner = new StringJoiner(" ");
+
+        for (Role role : roles.stream().sorted(Comparator.comparing(Role::getName)).toList()) {
+            stringJoiner.add(role.getName());
+
+            List<String> permissions = current.permissions().get(role.getName());
+            if (permissions == null) {
+                complete = false;
+                permissions = permissionNames(role);
+            }
+
+            permissions.forEach(stringJoiner::add);
+        }
+
+        String scope = stringJoiner.toString();
+
+        // only memoize role sets fully described by this snapshot version
+        if (complete)
+            current.scopes().put(roleNames, scope);
+
+        return scope;
+    }
+
+    void replace(Map<String, List<String>> permissions) {
+        snapshot = new Snapshot(snapshot.version() + 1, Map.copyOf(permissions));
+    }
+
+    static List<String> permissionNames(Role role) {
+        if (role.getPermissions() == null)
+            return List.of();
+
+        return role.getPermissions().stream()
+                .map(Permission::getName)
+                .sorted()
+                .toList();
+    }
+
+    record Snapshot(long version, Map<String, List<String>> permissions,
+                    Map<List<String>, String> scopes) {
+
+        Snapshot(long version, Map<String, List<String>> permissions) {
+            this(version, permissions, new ConcurrentHashMap<>());
+        }
+    }
+}
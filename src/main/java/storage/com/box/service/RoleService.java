@@ -25,6 +25,7 @@ public class RoleService {
     RoleRepository roleRepository;
     PermissionRepository permissionRepository;
     RoleMapper roleMapper;
+    RoleScopeSnapshot roleScopeSnapshot;
 
     @PreAuthorize("hasRole('ADMIN')")
     public RoleResponse createRole(RoleCreationRequest request) {
@@ -35,6 +36,7 @@ public class RoleService {
         role.setPermissions(new HashSet<>(permissions));
 
         role = roleRepository.save(role);
+        roleScopeSnapshot.putRole(role);
 
         return roleMapper.toRoleResponse(role);
     }
@@ -49,6 +51,7 @@ public class RoleService {
     @PreAuthorize("hasRole('ADMIN')")
     public void deleteRole(String roleName) {
         roleRepository.deleteById(roleName);
+        roleScopeSnapshot.removeRole(roleName);
     }
 
 }
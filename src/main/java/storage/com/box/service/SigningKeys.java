@@ -0,0 +1,293 @@
+package storage.com.box.service;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.text.ParseException;
+import java.util.*;
+
+/**
+ * Key material used to sign and verify tokens.
+ * <p>
+ * {@code HS256} (the default) signs with the shared {@code jwt.secret}, so only this
+ * service can check a token. {@code ES256} signs with an EC P-256 key named by the
+ * {@code kid} header and publishes the public keys through {@link #publicJwkSet()},
+ * which lets other services verify tokens locally. A rotated key stays in the set
+ * until every token it may have signed has expired, and is dropped on the first
+ * lookup after that.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Slf4j
+public class SigningKeys {
+
+    @Value("${jwt.signing.algorithm:HS256}")
+    String algorithmName;
+
+    @Value("${jwt.secret}")
+    String secret;
+
+    // JWK set with private EC keys, the first one signs; empty = generate at startup
+    @Value("${jwt.signing.key-file:}")
+    String keyFile;
+
+    // longest token lifetime, how long a rotated key keeps verifying
+    @Value("${jwt.refresh-token-expiration}")
+    long refreshTokenExpiration;
+
+    JWSAlgorithm algorithm;
+
+    String hmacHeader;
+    JWSVerifier macVerifier;
+
+    // Mac instances are not thread-safe; each thread keeps one already keyed with the secret
+    ThreadLocal<Mac> mac;
+
+    // replaced as a whole on rotation
+    @NonFinal
+    volatile KeyRing keyRing;
+
+    @PostConstruct
+    void init() throws JOSEException, IOException, ParseException {
+        algorithm = JWSAlgorithm.parse(algorithmName);
+
+        if (JWSAlgorithm.HS256.equals(algorithm)) {
+            initHmac();
+        } else if (JWSAlgorithm.ES256.equals(algorithm)) {
+            keyRing = keyFile.isBlank()
+                    ? KeyRing.of(generateKey(), List.of())
+                    : loadKeyFile(new File(keyFile));
+
+            if (keyFile.isBlank())
+                log.warn("ES256 signing key generated at startup, set jwt.signing.key-file when running more than one instance");
+
+            log.info("signing tokens with ES256 key {}", keyRing.active().getKeyID());
+        } else {
+            throw new IllegalStateException("unsupported jwt.signing.algorithm " + algorithmName);
+        }
+    }
+
+    void initHmac() throws JOSEException {
+        SecretKeySpec key = new SecretKeySpec(new MACSigner(secret.getBytes()).getSecret(), "HmacSHA256");
+
+        hmacHeader = new JWSHeader(JWSAlgorithm.HS256).toBase64URL().toString();
+        macVerifier = new MACVerifier(secret.getBytes());
+        mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public JWSAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Signs the base64url encoded claims and returns the compact token.
+     */
+    public String sign(String encodedPayload) {
+        if (JWSAlgorithm.HS256.equals(algorithm)) {
+            String signingInput = hmacHeader + '.' + encodedPayload;
+            byte[] signature = mac.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+
+            return signingInput + '.' + Base64URL.encode(signature);
+        }
+
+        KeyRing ring = keyRing;
+        String signingInput = ring.encodedHeader() + '.' + encodedPayload;
+
+        try {
+            return signingInput + '.'
+                    + ring.signer().sign(ring.header(), signingInput.getBytes(StandardCharsets.US_ASCII));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Verifier for a token with the given header, or null when the algorithm is not
+     * the configured one or the key ID is unknown.
+     */
+    public JWSVerifier verifierFor(JWSHeader header) {
+        if (!algorithm.equals(header.getAlgorithm()))
+            return null;
+
+        if (JWSAlgorithm.HS256.equals(algorithm))
+            return macVerifier;
+
+        if (header.getKeyID() == null)
+            return null;
+
+        return currentKeyRing().verifiers().get(header.getKeyID());
+    }
+
+    /**
+     * Public keys in JWK set form; empty in HS256 mode, the secret is never published.
+     */
+    public Map<String, Object> publicJwkSet() {
+        if (keyRing == null)
+            return new JWKSet().toJSONObject();
+
+        return currentKeyRing().publicJwkSet();
+    }
+
+    // the key ring without retired keys past their verifyUntil
+    KeyRing currentKeyRing() {
+        KeyRing ring = keyRing;
+        if (ring.nextExpiry() > System.currentTimeMillis())
+            return ring;
+
+        synchronized (this) {
+            try {
+                keyRing = keyRing.withoutExpired(System.currentTimeMillis());
+            } catch (JOSEException e) {
+                throw new IllegalStateException(e);
+            }
+
+            return keyRing;
+        }
+    }
+
+    @Scheduled(cron = "${jwt.signing.rotation-cron:-}")
+    void scheduledRotation() {
+        if (!keyFile.isBlank()) {
+            log.debug("skipping key rotation, keys come from {}", keyFile);
+            return;
+        }
+
+        rotate();
+    }
+
+    /**
+     * Starts signing with a fresh key; the current one keeps verifying for the
+     * lifetime of a refresh token. Returns the new key ID.
+     */
+    public synchronized String rotate() {
+        if (keyRing == null)
+            throw new IllegalStateException("key rotation needs an asymmetric jwt.signing.algorithm");
+
+        long now = System.currentTimeMillis();
+        KeyRing current = keyRing;
+
+        List<RetiredKey> retired = new ArrayList<>();
+        retired.add(new RetiredKey(current.active(), now + refreshTokenExpiration * 1000));
+        current.retired().stream()
+                .filter(key -> !key.expired(now))
+                .forEach(retired::add);
+
+        try {
+            keyRing = KeyRing.of(generateKey(), retired);
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+
+        log.info("rotated signing key {} -> {}", current.active().getKeyID(), keyRing.active().getKeyID());
+
+        return keyRing.active().getKeyID();
+    }
+
+    static ECKey generateKey() throws JOSEException {
+        return new ECKeyGenerator(Curve.P_256)
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(JWSAlgorithm.ES256)
+                .keyIDFromThumbprint(true)
+                .generate();
+    }
+
+    static KeyRing loadKeyFile(File file) throws IOException, ParseException, JOSEException {
+        List<ECKey> keys = new ArrayList<>();
+
+        for (JWK jwk : JWKSet.load(file).getKeys()) {
+            if (!(jwk instanceof ECKey ecKey) || !ecKey.isPrivate() || ecKey.getKeyID() == null)
+                throw new IllegalStateException("jwt.signing.key-file must hold private EC keys with a kid");
+
+            keys.add(ecKey);
+        }
+
+        if (keys.isEmpty())
+            throw new IllegalStateException("jwt.signing.key-file has no keys");
+
+        // keys after the first one only verify, until they are removed from the file
+        List<RetiredKey> retired = keys.subList(1, keys.size()).stream()
+                .map(key -> new RetiredKey(key, Long.MAX_VALUE))
+                .toList();
+
+        return KeyRing.of(keys.get(0), retired);
+    }
+
+    record RetiredKey(ECKey key, long verifyUntil) {
+
+        boolean expired(long now) {
+            return verifyUntil <= now;
+        }
+    }
+
+    record KeyRing(ECKey active, List<RetiredKey> retired, JWSHeader header, String encodedHeader,
+                   JWSSigner signer, Map<String, JWSVerifier> verifiers, Map<String, Object> publicJwkSet,
+                   long nextExpiry) {
+
+        static KeyRing of(ECKey active, List<RetiredKey> retired) throws JOSEException {
+            JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.ES256)
+                    .keyID(active.getKeyID())
+                    .build();
+
+            Map<String, JWSVerifier> verifiers = new HashMap<>();
+            List<JWK> publicKeys = new ArrayList<>();
+
+            verifiers.put(active.getKeyID(), new ECDSAVerifier(active.toECPublicKey()));
+            publicKeys.add(active.toPublicJWK());
+
+            for (RetiredKey key : retired) {
+                verifiers.put(key.key().getKeyID(), new ECDSAVerifier(key.key().toECPublicKey()));
+                publicKeys.add(key.key().toPublicJWK());
+            }
+
+            long nextExpiry = retired.stream()
+                    .mapToLong(RetiredKey::verifyUntil)
+                    .min()
+                    .orElse(Long.MAX_VALUE);
+
+            return new KeyRing(active, List.copyOf(retired), header, header.toBase64URL().toString(),
+                    new ECDSASigner(active), Map.copyOf(verifiers),
+                    Collections.unmodifiableMap(new JWKSet(publicKeys).toJSONObject(true)), nextExpiry);
+        }
+
+        KeyRing withoutExpired(long now) throws JOSEException {
+            if (nextExpiry > now)
+                return this;
+
+            return of(active, retired.stream()
+                    .filter(key -> !key.expired(now))
+                    .toList());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package storage.com.box.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Cached copy of each user's session epoch ({@code users.token_epoch}).
+ * <p>
+ * Tokens carry the epoch they were issued under in the {@code epoch} claim; a
+ * token is rejected once the user's epoch has moved past it, so bumping the
+ * counter revokes every outstanding token of that user at once. The bump is
+ * visible immediately on this instance and after {@code jwt.token-epoch.cache-ttl-seconds}
+ * on the others.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenEpochCache {
+
+    public static final String CLAIM = "epoch";
+
+    UserRepository userRepository;
+    LoadingCache<String, Long> epochs;
+
+    public TokenEpochCache(UserRepository userRepository,
+                           @Value("${jwt.token-epoch.cache-ttl-seconds:30}") long ttlSeconds,
+                           @Value("${jwt.token-epoch.max-size:100000}") long maxSize,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.epochs = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(userName -> userRepository.findTokenEpochByUserName(userName).orElse(0L));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, epochs, "auth.token-epoch");
+    }
+
+    public long current(String userName) {
+        if (userName == null)
+            return 0;
+
+        return epochs.get(userName);
+    }
+
+    /**
+     * Invalidates every token issued to the user so far and returns the new epoch.
+     */
+    public long bump(String userName) {
+        if (userRepository.incrementTokenEpoch(userName) == 0)
+            throw new AppException(ErrorCode.USER_NOT_EXIST);
+
+        long epoch = userRepository.findTokenEpochByUserName(userName).orElse(0L);
+        epochs.put(userName, epoch);
+
+        return epoch;
+    }
+
+    // tokens issued before epochs existed have no claim and count as epoch 0
+    public static long epochOf(Object claim) {
+        return claim instanceof Number number ? number.longValue() : 0;
+    }
+}
@@ -0,0 +1,99 @@
+package storage.com.box.service;
+
+import com.nimbusds.jose.util.Base64URL;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Signs access and refresh tokens.
+ * <p>
+ * Each token only serialises its claims and hands them to {@link SigningKeys},
+ * which holds the prepared key and encoded JWS header, without going through
+ * JWTClaimsSet / Payload / JWSObject.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TokenIssuer {
+
+    public static final String ISSUER = "storage-service";
+
+    @Autowired
+    SigningKeys signingKeys;
+
+    @Value("${jwt.access-token-expiration}")
+    long accessTokenExpiration;
+
+    @Value("${jwt.refresh-token-expiration}")
+    long refreshTokenExpiration;
+
+    /**
+     * Issues the access/refresh pair of one login with a shared issue time and scope.
+     */
+    public TokenPair issue(String subject, String scope, long epoch) {
+        long issuedAt = System.currentTimeMillis() / 1000;
+
+        return new TokenPair(
+                sign(subject, scope, epoch, issuedAt, accessTokenExpiration, "access"),
+                sign(subject, scope, epoch, issuedAt, refreshTokenExpiration, "refresh"));
+    }
+
+    public String issue(String subject, String scope, long epoch, boolean isRefresh) {
+        long issuedAt = System.currentTimeMillis() / 1000;
+
+        return isRefresh
+                ? sign(subject, scope, epoch, issuedAt, refreshTokenExpiration, "refresh")
+                : sign(subject, scope, epoch, issuedAt, accessTokenExpiration, "access");
+    }
+
+    String sign(String subject, String scope, long epoch, long issuedAt, long expirationSeconds,
+                String tokenType) {
+        StringBuilder claims = new StringBuilder(128 + scope.length());
+        claims.append("{\"sub\":");
+        appendJsonString(claims, subject);
+        claims.append(",\"iss\":\"").append(ISSUER)
+                .append("\",\"iat\":").append(issuedAt)
+                .append(",\"exp\":").append(issuedAt + expirationSeconds)
+                .append(",\"jti\":\"").append(UUID.randomUUID())
+                .append("\",\"scope\":");
+        appendJsonString(claims, scope);
+        claims.append(",\"").append(TokenEpochCache.CLAIM).append("\":").append(epoch)
+                .append(",\"token_type\":\"").append(tokenType).append("\"}");
+
+        return signingKeys.sign(Base64URL.encode(claims.toString().getBytes(StandardCharsets.UTF_8)).toString());
+    }
+
+    static void appendJsonString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20)
+                        out.append(String.format("\\u%04x", (int) c));
+                    else
+                        out.append(c);
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    public record TokenPair(String accessToken, String refreshToken) {
+    }
+}
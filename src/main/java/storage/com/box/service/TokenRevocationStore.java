@@ -0,0 +1,313 @@
+package storage.com.box.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import storage.com.box.entity.InvalidToken;
+import storage.com.box.repository.InvalidTokenRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory view of the revoked JWT IDs stored in {@code invalidateToken}.
+ * <p>
+ * JWT IDs are kept as 64-bit hashes (the first 8 bytes of their SHA-256), grouped
+ * in one-minute buckets by their expiration time, so the eviction task only has to
+ * drop the buckets that are already in the past. The database is written by
+ * {@link AuthenticationService}; it is read in full at startup, then polled every
+ * {@code jwt.revocation.poll-interval-ms} for the rows revoked since the last sync,
+ * which picks up revocations made by other instances (and it is the fallback while
+ * the initial load has not succeeded yet).
+ * <p>
+ * When {@code jwt.revocation.snapshot.path} is set, the set is checkpointed to that
+ * file periodically and at shutdown; startup then reads the file and fetches only
+ * the rows revoked since the checkpoint. A checkpoint is stamped with the last sync,
+ * not the time it is written, so rows the file does not hold are always fetched.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class TokenRevocationStore {
+
+    static final long BUCKET_MILLIS = 60_000L;
+
+    // revocations written by other instances with a slightly different clock
+    static final long CLOCK_SKEW_MILLIS = 60_000L;
+
+    static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    InvalidTokenRepository invalidTokenRepository;
+    Path snapshotPath;
+
+    Map<Long, Long> revoked = new ConcurrentHashMap<>();
+    ConcurrentSkipListMap<Long, Set<Long>> buckets = new ConcurrentSkipListMap<>();
+
+    Counter hits;
+    Counter misses;
+    Timer startupLoad;
+
+    @NonFinal
+    volatile boolean loaded;
+
+    // every row revoked before this time (minus the clock skew) has been read
+    @NonFinal
+    volatile long syncedMillis;
+
+    public TokenRevocationStore(InvalidTokenRepository invalidTokenRepository,
+                                MeterRegistry meterRegistry,
+                                @Value("${jwt.revocation.snapshot.path:}") String snapshotPath) {
+        this.invalidTokenRepository = invalidTokenRepository;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+
+        this.hits = Counter.builder("auth.revocation.lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.revocation.lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.startupLoad = Timer.builder("auth.revocation.load")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.revocation.size", revoked, Map::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            startupLoad.record(() -> {
+                if (!loadSnapshot())
+                    loadAll();
+            });
+            loaded = true;
+        } catch (DataAccessException e) {
+            log.warn("could not load revoked tokens, falling back to database lookups", e);
+        }
+    }
+
+    void loadAll() {
+        long now = System.currentTimeMillis();
+
+        List<InvalidToken> tokens = invalidTokenRepository.findByExpAfter(new Date(now));
+        tokens.forEach(token -> revoke(token.getId(), token.getExp()));
+        syncedMillis = now;
+
+        log.info("loaded {} revoked tokens", tokens.size());
+    }
+
+    // false when there is no usable checkpoint
+    boolean loadSnapshot() {
+        if (snapshotPath == null)
+            return false;
+
+        RevocationSnapshotFile.Snapshot snapshot;
+        try {
+            snapshot = RevocationSnapshotFile.read(snapshotPath);
+        } catch (IOException e) {
+            log.warn("could not read revocation snapshot {}", snapshotPath, e);
+            return false;
+        }
+
+        if (snapshot == null)
+            return false;
+
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < snapshot.count(); i++) {
+            if (snapshot.exp(i) > now)
+                add(snapshot.hash(i), snapshot.exp(i));
+        }
+
+        int delta = loadRevokedSince(snapshot.checkpointMillis(), now);
+
+        log.info("loaded {} revoked tokens from snapshot and {} from the database", snapshot.count(), delta);
+
+        return true;
+    }
+
+    // adds the rows revoked after sinceMillis and moves the sync point to now
+    int loadRevokedSince(long sinceMillis, long now) {
+        List<InvalidToken> delta = invalidTokenRepository.findByRevokedAtAfterAndExpAfter(
+                new Date(sinceMillis - CLOCK_SKEW_MILLIS), new Date(now));
+        delta.forEach(token -> revoke(token.getId(), token.getExp()));
+        syncedMillis = now;
+
+        return delta.size();
+    }
+
+    /**
+     * Fetches the rows revoked since the last sync, e.g. by other instances. A
+     * no-op until the initial load has succeeded.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval-ms:10000}",
+            initialDelayString = "${jwt.revocation.poll-interval-ms:10000}")
+    public void poll() {
+        if (!loaded)
+            return;
+
+        try {
+            int delta = loadRevokedSince(syncedMillis, System.currentTimeMillis());
+            if (delta > 0)
+                log.debug("polled {} revoked tokens from the database", delta);
+        } catch (DataAccessException e) {
+            log.warn("could not poll revoked tokens", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.snapshot.interval-ms:300000}",
+            initialDelayString = "${jwt.revocation.snapshot.interval-ms:300000}")
+    void scheduledCheckpoint() {
+        poll();
+        checkpoint();
+    }
+
+    /**
+     * Writes the current set to the snapshot file; a no-op when no path is set or
+     * the set was never loaded (the file would miss the rows still in the database).
+     */
+    public void checkpoint() {
+        if (snapshotPath == null || !loaded)
+            return;
+
+        // anything revoked after the last sync is newer than the checkpoint and comes back as delta
+        long checkpointMillis = syncedMillis;
+
+        Map<Long, Long> entries = new TreeMap<>(revoked);
+        long[] hashes = new long[entries.size()];
+        long[] exps = new long[entries.size()];
+
+        int i = 0;
+        for (var entry : entries.entrySet()) {
+            hashes[i] = entry.getKey();
+            exps[i++] = entry.getValue();
+        }
+
+        try {
+            RevocationSnapshotFile.write(snapshotPath, checkpointMillis, hashes, exps);
+            log.debug("checkpointed {} revoked tokens to {}", hashes.length, snapshotPath);
+        } catch (IOException e) {
+            log.warn("could not write revocation snapshot {}", snapshotPath, e);
+        }
+    }
+
+    @PreDestroy
+    void checkpointOnShutdown() {
+        checkpoint();
+    }
+
+    public void revoke(String jwtId, Date exp) {
+        if (jwtId == null || exp == null)
+            return;
+
+        add(hashOf(jwtId), exp.getTime());
+    }
+
+    void add(long hash, long expMillis) {
+        // already expired: verifyToken rejects it on its own
+        if (expMillis <= System.currentTimeMillis())
+            return;
+
+        revoked.put(hash, expMillis);
+        buckets.computeIfAbsent(bucketOf(expMillis), key -> ConcurrentHashMap.newKeySet())
+                .add(hash);
+    }
+
+    public boolean isRevoked(String jwtId) {
+        if (jwtId == null)
+            return false;
+
+        if (!loaded)
+            return invalidTokenRepository.existsById(jwtId);
+
+        return isRevokedHash(hashOf(jwtId), System.currentTimeMillis());
+    }
+
+    boolean isRevokedHash(long hash, long now) {
+        Long exp = revoked.get(hash);
+        boolean hit = exp != null && exp > now;
+
+        (hit ? hits : misses).increment();
+
+        return hit;
+    }
+
+    /**
+     * The given JWT IDs that are revoked, resolved in memory or, before the initial
+     * load succeeded, with a single database query.
+     */
+    public Set<String> revokedAmong(Collection<String> jwtIds) {
+        if (jwtIds.isEmpty())
+            return Set.of();
+
+        if (!loaded) {
+            return invalidTokenRepository.findAllById(jwtIds).stream()
+                    .map(InvalidToken::getId)
+                    .collect(Collectors.toSet());
+        }
+
+        long now = System.currentTimeMillis();
+        Set<String> result = new HashSet<>();
+
+        for (String jwtId : jwtIds) {
+            if (isRevokedHash(hashOf(jwtId), now))
+                result.add(jwtId);
+        }
+
+        return result;
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.eviction-interval-ms:60000}",
+            initialDelayString = "${jwt.revocation.eviction-interval-ms:60000}")
+    void evictExpired() {
+        if (!loaded) {
+            load();
+            return;
+        }
+
+        // buckets before the current one only hold tokens that have already expired
+        var expired = buckets.headMap(bucketOf(System.currentTimeMillis()));
+
+        expired.values().forEach(hashes -> hashes.forEach(revoked::remove));
+        expired.clear();
+    }
+
+    static long bucketOf(long epochMillis) {
+        return epochMillis / BUCKET_MILLIS;
+    }
+
+    static long hashOf(String jwtId) {
+        byte[] digest = SHA_256.get().digest(jwtId.getBytes(StandardCharsets.UTF_8));
+
+        return ByteBuffer.wrap(digest).getLong();
+    }
+}
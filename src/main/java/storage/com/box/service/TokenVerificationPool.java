@@ -0,0 +1,115 @@
+package storage.com.box.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Dedicated, bounded pool that verifies the tokens of a batch introspection in
+ * parallel, so a large batch from the public endpoint never runs on the JVM-wide
+ * common pool.
+ * <p>
+ * A batch is cut into slices of {@code jwt.introspect.parallel-threshold} tokens;
+ * the first slice runs on the calling thread and the others on the pool. When the
+ * workers and the queue are full a slice runs on the calling thread instead, which
+ * slows that caller down rather than growing the pool.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class TokenVerificationPool {
+
+    ThreadPoolExecutor executor;
+    int sliceSize;
+
+    public TokenVerificationPool(@Value("${jwt.introspect.threads:0}") int threads,
+                                 @Value("${jwt.introspect.queue-capacity:64}") int queueCapacity,
+                                 @Value("${jwt.introspect.parallel-threshold:64}") int sliceSize,
+                                 MeterRegistry meterRegistry) {
+        // default: one core less than the machine so request threads keep some CPU
+        if (threads <= 0)
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+        this.sliceSize = Math.max(1, sliceSize);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "token-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        Gauge.builder("auth.introspect.queue.depth", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.introspect.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        log.info("token verification pool: {} threads, queue {}", threads, queueCapacity);
+    }
+
+    /**
+     * Applies {@code function} to every item, in parallel for more than one slice.
+     * Results are in the order of {@code items}.
+     */
+    public <T, R> List<R> map(List<T> items, Function<T, R> function) {
+        if (items.size() <= sliceSize)
+            return items.stream().map(function).toList();
+
+        Object[] results = new Object[items.size()];
+        List<Future<?>> slices = new ArrayList<>();
+
+        for (int from = sliceSize; from < items.size(); from += sliceSize) {
+            int start = from;
+            int end = Math.min(from + sliceSize, items.size());
+            slices.add(executor.submit(() -> apply(items, function, results, start, end)));
+        }
+
+        apply(items, function, results, 0, sliceSize);
+
+        for (Future<?> slice : slices)
+            await(slice);
+
+        @SuppressWarnings("unchecked")
+        List<R> list = (List<R>) Arrays.asList(results);
+        return list;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    static <T, R> void apply(List<T> items, Function<T, R> function, Object[] results, int from, int to) {
+        for (int i = from; i < to; i++)
+            results[i] = function.apply(items.get(i));
+    }
+
+    static void await(Future<?> slice) {
+        try {
+            slice.get();
+        } catch (InterruptedException e) {
+            slice.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while verifying tokens", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
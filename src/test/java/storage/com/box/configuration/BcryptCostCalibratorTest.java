@@ -0,0 +1,28 @@
+package storage.com.box.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BcryptCostCalibratorTest {
+
+    @Test
+    void calibrate_withinBounds_success() {
+        int strength = BcryptCostCalibrator.calibrate(50, 4, 12);
+
+        assertThat(strength).isBetween(4, 12);
+    }
+
+    @Test
+    void calibrate_tinyTarget_minStrength() {
+        assertThat(BcryptCostCalibrator.calibrate(0, 10, 14)).isEqualTo(10);
+    }
+
+    @Test
+    void costOf_bcryptHash_success() {
+        assertThat(BcryptCostCalibrator.costOf(new BCryptPasswordEncoder(5).encode("password"))).isEqualTo(5);
+        assertThat(BcryptCostCalibrator.costOf("plain text")).isEqualTo(-1);
+        assertThat(BcryptCostCalibrator.costOf(null)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,75 @@
+package storage.com.box.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BoundedPasswordEncoderTest {
+
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+
+    // encodes slowly until released, like BCrypt under load
+    PasswordEncoder blocking = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "encoded:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals("encoded:" + rawPassword);
+        }
+    };
+
+    BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, 3, new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void encode_validRequest_success() {
+        release.countDown();
+
+        assertThat(encoder.encode("password")).isEqualTo("encoded:password");
+        assertThat(encoder.matches("password", "encoded:password")).isTrue();
+    }
+
+    @Test
+    void encode_saturated_rejected() throws Exception {
+        // one running on the single worker, one waiting in the queue
+        var running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        started.await(5, TimeUnit.SECONDS);
+        var queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (encoder.queueDepth() == 0)
+            Thread.onSpinWait();
+
+        var exception = assertThrows(AppException.class, () -> encoder.encode("third"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.SERVICE_BUSY);
+        assertThat(exception.getRetryAfterSeconds()).isEqualTo(3);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("encoded:first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("encoded:second");
+    }
+}
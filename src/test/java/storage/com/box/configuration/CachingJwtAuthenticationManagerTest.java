@@ -0,0 +1,59 @@
+package storage.com.box.configuration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import storage.com.box.service.AuthenticationCache;
+import storage.com.box.service.TokenEpochCache;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class CachingJwtAuthenticationManagerTest {
+
+    AuthenticationProvider delegate = mock(AuthenticationProvider.class);
+    TokenEpochCache tokenEpochCache = mock(TokenEpochCache.class);
+    AuthenticationCache authenticationCache = new AuthenticationCache(100, new SimpleMeterRegistry());
+
+    CachingJwtAuthenticationManager manager =
+            new CachingJwtAuthenticationManager(delegate, authenticationCache, tokenEpochCache);
+
+    JwtAuthenticationToken authentication = new JwtAuthenticationToken(Jwt.withTokenValue("token")
+            .header("alg", "HS256")
+            .subject("test user")
+            .claim(TokenEpochCache.CLAIM, 0L)
+            .expiresAt(Instant.now().plusSeconds(60))
+            .build());
+
+    @Test
+    void authenticate_cachedToken_delegateCalledOnce() {
+        when(delegate.authenticate(any())).thenReturn(authentication);
+
+        manager.authenticate(new BearerTokenAuthenticationToken("token"));
+        var result = manager.authenticate(new BearerTokenAuthenticationToken("token"));
+
+        assertThat(result).isSameAs(authentication);
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_epochBumpedAfterCaching_fail() {
+        when(delegate.authenticate(any())).thenReturn(authentication);
+        manager.authenticate(new BearerTokenAuthenticationToken("token"));
+
+        when(tokenEpochCache.current("test user")).thenReturn(1L);
+        when(delegate.authenticate(any())).thenThrow(new BadJwtException("revoked"));
+
+        assertThrows(BadJwtException.class,
+                () -> manager.authenticate(new BearerTokenAuthenticationToken("token")));
+        assertThat(authenticationCache.get("token")).isNull();
+    }
+}
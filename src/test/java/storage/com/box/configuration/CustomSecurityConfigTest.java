@@ -0,0 +1,135 @@
+package storage.com.box.configuration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.dto.request.AuthenticationRequest;
+import storage.com.box.dto.response.AuthenticationResponse;
+import storage.com.box.entity.Permission;
+import storage.com.box.entity.Role;
+import storage.com.box.entity.User;
+import storage.com.box.repository.InvalidTokenRepository;
+import storage.com.box.repository.UserRepository;
+import storage.com.box.service.AuthenticationService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class CustomSecurityConfigTest {
+
+    // enough to interleave decodes across threads; throughput is measured by DecodeBenchmark
+    static final int THREADS = 8;
+    static final int DECODES_PER_THREAD = 50;
+
+    @MockitoBean
+    UserRepository userRepository;
+    @MockitoBean
+    InvalidTokenRepository invalidTokenRepository;
+
+    @Autowired
+    CustomSecurityConfig customSecurityConfig;
+    @Autowired
+    AuthenticationService authenticationService;
+
+    User user;
+
+    @BeforeEach
+    void initData() {
+        Permission permission = Permission.builder()
+                .name("GET")
+                .build();
+
+        Role role = Role.builder()
+                .name("USER")
+                .permissions(Set.of(permission))
+                .build();
+
+        user = User.builder()
+                .userId("decoder-test-user")
+                .userName("decoder user")
+                .password(new BCryptPasswordEncoder(4).encode("password"))
+                .roles(Set.of(role))
+                .build();
+
+        when(userRepository.findByUserName("decoder user")).thenReturn(Optional.of(user));
+    }
+
+    AuthenticationResponse login() {
+        return authenticationService.authenticate(AuthenticationRequest.builder()
+                .userName("decoder user")
+                .password("password")
+                .build());
+    }
+
+    @Test
+    void decode_validToken_success() {
+        String token = login().getAccessToken();
+
+        Jwt jwt = customSecurityConfig.decode(token);
+
+        assertThat(jwt.getSubject()).isEqualTo("decoder user");
+        assertThat(jwt.getClaimAsString("scope")).isEqualTo("USER GET");
+        assertThat(jwt.getExpiresAt()).isNotNull();
+    }
+
+    @Test
+    void decode_refreshToken_fail() {
+        String token = login().getRefreshToken();
+
+        assertThrows(JwtException.class, () -> customSecurityConfig.decode(token));
+    }
+
+    @Test
+    void decode_malformedToken_fail() {
+        assertThrows(JwtException.class, () -> customSecurityConfig.decode("not-a-token"));
+    }
+
+    @Test
+    void decode_concurrentRequests_success() throws Exception {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++)
+            tokens.add(login().getAccessToken());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String token = tokens.get(i);
+                tasks.add(() -> {
+                    int decoded = 0;
+                    for (int n = 0; n < DECODES_PER_THREAD; n++) {
+                        if ("decoder user".equals(customSecurityConfig.decode(token).getSubject()))
+                            decoded++;
+                    }
+                    return decoded;
+                });
+            }
+
+            int decoded = 0;
+            for (Future<Integer> future : executor.invokeAll(tasks))
+                decoded += future.get();
+
+            assertThat(decoded).isEqualTo(THREADS * DECODES_PER_THREAD);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
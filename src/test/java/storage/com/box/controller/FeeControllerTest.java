@@ -2,6 +2,7 @@ package storage.com.box.controller;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
@@ -13,8 +14,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import storage.com.box.dto.request.FeeCreationRequest;
+import storage.com.box.dto.request.FeeSearchRequest;
 import storage.com.box.dto.request.FeeUpdateRequest;
+import storage.com.box.dto.response.CursorPage;
 import storage.com.box.dto.response.FeeCreationResponse;
+import storage.com.box.dto.response.SlicePage;
 import storage.com.box.entity.Fee;
 import storage.com.box.entity.User;
 import storage.com.box.exception.AppException;
@@ -24,10 +28,12 @@ import storage.com.box.repository.UserRepository;
 import storage.com.box.service.FeeService;
 import tools.jackson.databind.ObjectMapper;
 
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -115,6 +121,26 @@ public class FeeControllerTest {
 
     }
 
+    @Test
+    void createFee_overBudget_flagged() throws Exception {
+        ObjectMapper  mapper = new ObjectMapper();
+        String content = mapper.writeValueAsString(request);
+
+        response.setOverBudget(true);
+        when(feeService.createFee(any())).thenReturn(response);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders
+                        .post("/fee")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("CREATE")))
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(content))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers
+                        .jsonPath("result.overBudget")
+                        .value(true));
+    }
+
     @Test
     void updateFee_validRequest_success() throws Exception {
         ObjectMapper  mapper = new ObjectMapper();
@@ -222,17 +248,71 @@ public class FeeControllerTest {
 
     @Test
     void getFees_validRequest_success() throws Exception {
-        when(feeService.getUserFee()).thenReturn(List.of(response));
+        when(feeService.getUserFee("cursor", 20)).thenReturn(CursorPage.<FeeCreationResponse>builder()
+                .items(List.of(response))
+                .nextCursor("next")
+                .build());
 
         mockMvc.perform(
                 MockMvcRequestBuilders
-                        .get("/fee/userFee")
+                        .get("/fee/userFees")
+                        .param("cursor", "cursor")
+                        .param("size", "20")
                         .with(jwt().authorities(new SimpleGrantedAuthority("GET")))
         )
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers
                         .jsonPath("code")
-                        .value(1000));
+                        .value(1000))
+                .andExpect(MockMvcResultMatchers
+                        .jsonPath("nextCursor")
+                        .value("next"));
+    }
+
+    @Test
+    void searchFees_validRequest_success() throws Exception {
+        when(feeService.searchFees(any())).thenReturn(SlicePage.<FeeCreationResponse>builder()
+                .items(List.of(response))
+                .page(0)
+                .size(20)
+                .hasNext(true)
+                .build());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders
+                        .get("/fee/search")
+                        .param("from", "2026-01-01")
+                        .param("category", "Food", "Home")
+                        .param("minPrice", "10")
+                        .param("sort", "amount")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("GET")))
+        )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers
+                        .jsonPath("result.hasNext")
+                        .value(true));
+
+        ArgumentCaptor<FeeSearchRequest> captor = ArgumentCaptor.forClass(FeeSearchRequest.class);
+        verify(feeService).searchFees(captor.capture());
+
+        assertThat(captor.getValue().getFrom()).isEqualTo(LocalDate.of(2026, 1, 1));
+        assertThat(captor.getValue().getCategory()).containsExactly("Food", "Home");
+        assertThat(captor.getValue().getMinPrice()).isEqualTo(10);
+        assertThat(captor.getValue().getSort()).isEqualTo("amount");
+    }
+
+    @Test
+    void exportFees_unknownFormat_fail() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders
+                        .get("/fee/export")
+                        .param("format", "xml")
+                        .with(jwt().authorities(new SimpleGrantedAuthority("GET")))
+        )
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers
+                        .jsonPath("code")
+                        .value(1015));
     }
 
 }
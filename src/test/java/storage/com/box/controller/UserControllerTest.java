@@ -92,6 +92,26 @@ public class UserControllerTest {
                         .value("1000"));
     }
 
+    @Test
+    void createUser_serverBusy_fail() throws Exception {
+
+        ObjectMapper mapper = new ObjectMapper();
+        String content = mapper.writeValueAsString(request);
+        Mockito.when(userService.createUser(ArgumentMatchers.any()))
+                .thenThrow(new AppException(ErrorCode.SERVICE_BUSY, 2));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+
+                .andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+                .andExpect(MockMvcResultMatchers.header().string("Retry-After", "2"))
+                .andExpect(MockMvcResultMatchers
+                        .jsonPath("code")
+                        .value(1011));
+    }
+
     @Test
     void createUser_invalidRequest_fail() throws Exception {
 
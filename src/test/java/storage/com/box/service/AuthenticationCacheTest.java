@@ -0,0 +1,67 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.dto.request.IntrospectRequest;
+import storage.com.box.repository.InvalidTokenRepository;
+
+import java.text.ParseException;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class AuthenticationCacheTest {
+
+    @MockitoBean
+    InvalidTokenRepository invalidTokenRepository;
+
+    @Autowired
+    AuthenticationCache authenticationCache;
+    @Autowired
+    AuthenticationService authenticationService;
+
+    Authentication authentication;
+
+    @BeforeEach
+    void initData() {
+        authentication = new TestingAuthenticationToken("test user", null, "ROLE_USER");
+    }
+
+    @Test
+    void get_cachedToken_success() {
+        authenticationCache.put("cached-token", authentication, Instant.now().plusSeconds(60));
+
+        assertThat(authenticationCache.get("cached-token")).isSameAs(authentication);
+        assertThat(authenticationCache.get("other-token")).isNull();
+    }
+
+    @Test
+    void put_expiredToken_notCached() {
+        authenticationCache.put("expired-token", authentication, Instant.now().minusSeconds(1));
+
+        assertThat(authenticationCache.get("expired-token")).isNull();
+    }
+
+    @Test
+    void logout_cachedToken_invalidated() throws Exception {
+        authenticationCache.put("logout-token", authentication, Instant.now().plusSeconds(60));
+
+        try {
+            authenticationService.logout(IntrospectRequest.builder()
+                    .token("logout-token")
+                    .build());
+        } catch (ParseException e) {
+            // not a real JWT, only the cache eviction matters here
+        }
+
+        assertThat(authenticationCache.get("logout-token")).isNull();
+    }
+}
@@ -7,13 +7,18 @@ import com.nimbusds.jwt.SignedJWT;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 import storage.com.box.dto.request.AuthenticationRequest;
+import storage.com.box.dto.request.BatchIntrospectRequest;
 import storage.com.box.dto.request.IntrospectRequest;
 import storage.com.box.dto.request.RefreshTokenRequest;
 import storage.com.box.dto.response.AuthenticationResponse;
@@ -27,10 +32,9 @@ import storage.com.box.repository.UserRepository;
 
 import java.text.ParseException;
 import java.time.Instant;
-import java.util.Date;
-import java.util.Optional;
-import java.util.Set;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -48,6 +52,11 @@ public class AuthenticationServiceTest {
     @MockitoSpyBean
     AuthenticationService authenticationService;
 
+    @Autowired
+    TokenRevocationStore tokenRevocationStore;
+    @Autowired
+    TokenVerificationPool tokenVerificationPool;
+
     AuthenticationRequest request;
     AuthenticationResponse response;
     IntrospectRequest introspectRequest;
@@ -103,6 +112,27 @@ public class AuthenticationServiceTest {
         verify(userRepository).findByUserName(request.getUserName());
     }
 
+    @Test
+    void authenticate_outdatedCost_rehashed() {
+        when(userRepository.findByUserName(request.getUserName())).thenReturn(Optional.of(user));
+
+        authenticationService.authenticate(request);
+
+        // test.properties pins the cost to 4, the stored hash was made with 10
+        verify(userRepository).updatePassword(eq(user.getUserId()), startsWith("$2a$04$"));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void authenticate_currentCost_notRehashed() {
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        when(userRepository.findByUserName(request.getUserName())).thenReturn(Optional.of(user));
+
+        authenticationService.authenticate(request);
+
+        verify(userRepository, never()).updatePassword(anyString(), anyString());
+    }
+
     @Test
     void authenticate_invalidUser_fail() {
         when(userRepository.findByUserName(request.getUserName()))
@@ -160,6 +190,86 @@ public class AuthenticationServiceTest {
         assertThat(response.isValid()).isFalse();
     }
 
+    @Test
+    void introspectBatch_mixedTokens_success() throws Exception {
+        String valid = authenticationService.generateToken(user, false);
+        String revoked = authenticationService.generateToken(user, false);
+        String refresh = authenticationService.generateToken(user, true);
+
+        JWTClaimsSet revokedClaims = SignedJWT.parse(revoked).getJWTClaimsSet();
+        tokenRevocationStore.revoke(revokedClaims.getJWTID(), revokedClaims.getExpirationTime());
+
+        List<String> tokens = new ArrayList<>(Arrays.asList(valid, revoked, refresh, "not a token", null));
+        // enough tokens to take the parallel path
+        for (int i = 0; i < 64; i++)
+            tokens.add(authenticationService.generateToken(user, false));
+
+        var results = authenticationService.introspectBatch(BatchIntrospectRequest.builder()
+                .tokens(tokens)
+                .build());
+
+        assertEquals(tokens.size(), results.size());
+        assertTrue(results.get(0).isValid());
+        assertEquals("test user", results.get(0).getSubject());
+        assertEquals("USER TEST", results.get(0).getScope());
+        assertEquals(SignedJWT.parse(valid).getJWTClaimsSet().getJWTID(), results.get(0).getJwtId());
+        assertNotNull(results.get(0).getExpiresAt());
+
+        assertFalse(results.get(1).isValid());
+        assertNull(results.get(1).getSubject());
+        assertFalse(results.get(2).isValid());
+        assertFalse(results.get(3).isValid());
+        assertFalse(results.get(4).isValid());
+        assertTrue(results.subList(5, results.size()).stream().allMatch(result -> result.isValid()));
+
+        verify(invalidTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    void introspectBatch_epochLookupFails_onlyThatTokenInvalid() {
+        User unreachable = User.builder()
+                .userId("a8sd7Asd2sdSdf")
+                .userName("epoch lookup fails")
+                .roles(Set.of(role))
+                .build();
+        when(userRepository.findTokenEpochByUserName("epoch lookup fails"))
+                .thenThrow(new QueryTimeoutException("statement timed out"));
+
+        var results = authenticationService.introspectBatch(BatchIntrospectRequest.builder()
+                .tokens(List.of(authenticationService.generateToken(user, false),
+                        authenticationService.generateToken(unreachable, false)))
+                .build());
+
+        assertTrue(results.get(0).isValid());
+        assertFalse(results.get(1).isValid());
+    }
+
+    @Test
+    void tokenVerificationPool_largeBatch_parallelInOrder() {
+        List<Integer> items = IntStream.range(0, 1000).boxed().toList();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        var results = tokenVerificationPool.map(items, item -> {
+            threads.add(Thread.currentThread().getName());
+            return item * 2;
+        });
+
+        assertEquals(IntStream.range(0, 1000).map(item -> item * 2).boxed().toList(), results);
+        assertTrue(threads.stream().anyMatch(name -> name.startsWith("token-verify-")));
+    }
+
+    @Test
+    void introspectBatch_tooManyTokens_fail() {
+        var request = BatchIntrospectRequest.builder()
+                .tokens(Collections.nCopies(501, "token"))
+                .build();
+
+        var exception = assertThrows(AppException.class,
+                () -> authenticationService.introspectBatch(request));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INTROSPECT_BATCH_TOO_LARGE);
+    }
+
     @Test
     void refreshToken_validRequest_success() throws Exception {
 
@@ -183,11 +293,13 @@ public class AuthenticationServiceTest {
         when(userRepository.findByUserName(request.getUserName()))
                 .thenReturn(Optional.of(user));
 
-        doReturn("newToken").when(authenticationService).generateToken(user, true);
+        doReturn(new TokenIssuer.TokenPair("newToken", "newRefreshToken"))
+                .when(authenticationService).issueTokens(user);
 
         var response = authenticationService.refreshToken(refreshTokenRequest);
 
         assertThat(response.getAccessToken()).isEqualTo("newToken");
+        assertThat(response.getRefreshToken()).isEqualTo("newRefreshToken");
 
     }
 
@@ -247,6 +359,7 @@ public class AuthenticationServiceTest {
                 .save(argThat(token ->
                         token.getId().equals("testID")));
 
+        assertTrue(tokenRevocationStore.isRevoked("testID"));
     }
 
     @Test
@@ -269,13 +382,11 @@ public class AuthenticationServiceTest {
     void verifyToken_validRequest_success() throws Exception {
         String token = authenticationService.generateToken(user, false);
 
-        when(invalidTokenRepository.existsById(anyString()))
-                .thenReturn(false);
-
         SignedJWT jwt = authenticationService.verifyToken(token, "access");
 
         assertNotNull(jwt);
         assertEquals("test user", jwt.getJWTClaimsSet().getSubject());
+        assertEquals("USER TEST", jwt.getJWTClaimsSet().getStringClaim("scope"));
     }
 
     // generate Exp token
@@ -312,11 +423,11 @@ public class AuthenticationServiceTest {
     }
 
     @Test
-    void verifyToken_invalidRequest_fail() {
+    void verifyToken_invalidRequest_fail() throws Exception {
         String token = authenticationService.generateToken(user, false);
 
-        when(invalidTokenRepository.existsById(anyString()))
-                .thenReturn(true);
+        JWTClaimsSet claimsSet = SignedJWT.parse(token).getJWTClaimsSet();
+        tokenRevocationStore.revoke(claimsSet.getJWTID(), claimsSet.getExpirationTime());
 
         var exception = assertThrows(AppException.class,() ->
                 authenticationService.verifyToken(token, "access"));
@@ -325,6 +436,47 @@ public class AuthenticationServiceTest {
 
     }
 
+    @Test
+    void logoutAll_outstandingTokens_revoked() throws Exception {
+        // own user name: the epoch cache outlives a single test
+        user.setUserName("epoch user");
+        String before = authenticationService.generateToken(user, false);
+        String refreshBefore = authenticationService.generateToken(user, true);
+
+        when(userRepository.incrementTokenEpoch("epoch user")).thenReturn(1);
+        when(userRepository.findTokenEpochByUserName("epoch user")).thenReturn(Optional.of(1L));
+
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("epoch user", null));
+        try {
+            authenticationService.logoutAll();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        assertThrows(AppException.class, () -> authenticationService.verifyToken(before, "access"));
+        assertThrows(AppException.class, () -> authenticationService.verifyToken(refreshBefore, "refresh"));
+
+        user.setTokenEpoch(1L);
+        String after = authenticationService.generateToken(user, false);
+
+        assertNotNull(authenticationService.verifyToken(after, "access"));
+        verify(invalidTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void logoutAll_unknownUser_fail() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(new TestingAuthenticationToken("ghost user", null));
+        try {
+            var exception = assertThrows(AppException.class, () -> authenticationService.logoutAll());
+
+            assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.USER_NOT_EXIST);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
     @Test
     void buildScope_valid_success() {
 
@@ -0,0 +1,246 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.dto.request.FeeAnalyticsRequest;
+import storage.com.box.dto.response.FeeAnalyticsResponse;
+import storage.com.box.dto.response.FeeCreationResponse;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.User;
+import storage.com.box.enums.FeeGroupBy;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class FeeAnalyticsServiceTest {
+
+    @MockitoBean
+    FeeRepository feeRepository;
+    @MockitoBean
+    UserRepository userRepository;
+
+    @Autowired
+    FeeAnalyticsService feeAnalyticsService;
+
+    List<Fee> fees;
+    User user;
+
+    @BeforeEach
+    void initData() {
+        // a fresh user per test, cached columns outlive a single test
+        user = User.builder()
+                .userId(UUID.randomUUID().toString())
+                .userName("User test")
+                .build();
+
+        fees = new ArrayList<>(List.of(
+                fee("a", 10.25, "2026-01-31T23:59:00Z", "Food"),
+                fee("b", 5, "2026-02-01T00:00:00Z", "Food"),
+                fee("c", 100, "2026-02-14T12:00:00Z", "Home"),
+                fee("d", 7.5, "2026-03-02T08:00:00Z", null),
+                fee("e", 1, null, "Food")));
+
+        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.of(user));
+        when(feeRepository.streamByUserId(user.getUserId()))
+                .thenAnswer(invocation -> fees.stream());
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void analyze_byCategoryInRange_success() {
+        var response = feeAnalyticsService.analyze(FeeAnalyticsRequest.builder()
+                .from(LocalDate.of(2026, 2, 1))
+                .to(LocalDate.of(2026, 3, 31))
+                .build());
+
+        assertThat(response.getCount()).isEqualTo(3);
+        assertThat(response.getTotal()).isEqualTo(112.5);
+        assertThat(response.getGroups())
+                .extracting(FeeAnalyticsResponse.Group::getKey, FeeAnalyticsResponse.Group::getTotal)
+                .containsExactlyInAnyOrder(
+                        tuple("Food", 5.0),
+                        tuple("Home", 100.0),
+                        tuple(null, 7.5));
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void analyze_byMonthTopOne_success() {
+        var response = feeAnalyticsService.analyze(FeeAnalyticsRequest.builder()
+                .from(LocalDate.of(2026, 1, 1))
+                .groupBy("month")
+                .top(1)
+                .build());
+
+        assertThat(response.getCount()).isEqualTo(4);
+        assertThat(response.getGroups()).hasSize(1);
+        assertThat(response.getGroups().getFirst().getKey()).isEqualTo("2026-02");
+        assertThat(response.getGroups().getFirst().getTotal()).isEqualTo(105.0);
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void onFeeChanged_builtColumns_patched() {
+        var before = feeAnalyticsService.analyze(FeeAnalyticsRequest.builder()
+                .category(List.of("Food"))
+                .groupBy("none")
+                .build());
+        assertThat(before.getTotal()).isEqualTo(16.25);
+
+        feeAnalyticsService.onFeeChanged(FeeChangedEvent.saved(user.getUserId(), List.of(FeeCreationResponse.builder()
+                .feeId("b")
+                .feePrice(50)
+                .date(Date.from(Instant.parse("2026-02-01T00:00:00Z")))
+                .categoryName("Food")
+                .build())));
+        feeAnalyticsService.onFeeChanged(FeeChangedEvent.deleted(user.getUserId(), List.of("e")));
+
+        var after = feeAnalyticsService.analyze(FeeAnalyticsRequest.builder()
+                .category(List.of("Food"))
+                .groupBy("none")
+                .build());
+
+        assertThat(after.getCount()).isEqualTo(2);
+        assertThat(after.getTotal()).isEqualTo(60.25);
+        verify(feeRepository, times(1)).streamByUserId(user.getUserId());
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void onFeeChanged_duringBuild_appliedToBuiltColumns() throws Exception {
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(feeRepository.streamByUserId(user.getUserId()))
+                .thenAnswer(invocation -> {
+                    List<Fee> snapshot = List.copyOf(fees);
+                    streaming.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return snapshot.stream();
+                });
+
+        var building = CompletableFuture.supplyAsync(() -> feeAnalyticsService.columnsOf(user.getUserId()));
+        assertThat(streaming.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // committed after the build read its snapshot
+        feeAnalyticsService.onFeeChanged(FeeChangedEvent.saved(user.getUserId(), List.of(FeeCreationResponse.builder()
+                .feeId("f")
+                .feePrice(20)
+                .date(Date.from(Instant.parse("2026-02-10T00:00:00Z")))
+                .categoryName("Food")
+                .build())));
+        feeAnalyticsService.onFeeChanged(FeeChangedEvent.deleted(user.getUserId(), List.of("a")));
+        release.countDown();
+        building.get(5, TimeUnit.SECONDS);
+
+        var response = feeAnalyticsService.analyze(FeeAnalyticsRequest.builder()
+                .category(List.of("Food"))
+                .groupBy("none")
+                .build());
+
+        assertThat(response.getCount()).isEqualTo(3);
+        assertThat(response.getTotal()).isEqualTo(26.0);
+        verify(feeRepository, times(1)).streamByUserId(user.getUserId());
+    }
+
+    @Test
+    void with_randomChanges_sameAsRebuilt() {
+        Random random = new Random(42);
+        Map<String, FeeColumns.Row> rows = new LinkedHashMap<>();
+        FeeColumns columns = new FeeColumns(List.of());
+
+        for (int step = 0; step < 200; step++) {
+            List<FeeColumns.Row> saved = new ArrayList<>();
+            List<String> deleted = new ArrayList<>();
+
+            for (int i = random.nextInt(4); i >= 0; i--) {
+                // updates reuse an id, undated rows and new categories show up now and then
+                String feeId = "fee-" + random.nextInt(60);
+                int day = random.nextInt(10) == 0 ? FeeColumns.NO_DATE : 20_000 + random.nextInt(90);
+                String category = random.nextInt(8) == 0 ? null : "category " + random.nextInt(5);
+
+                if (random.nextInt(4) == 0) {
+                    deleted.add(feeId);
+                    rows.remove(feeId);
+                } else {
+                    saved.removeIf(row -> row.feeId().equals(feeId));
+                    saved.add(new FeeColumns.Row(feeId, day, random.nextInt(10_000), category));
+                    rows.remove(feeId);
+                }
+            }
+            saved.forEach(row -> rows.put(row.feeId(), row));
+
+            columns = columns.with(saved, deleted);
+            FeeColumns rebuilt = new FeeColumns(List.copyOf(rows.values()));
+
+            assertThat(columns.size()).isEqualTo(rebuilt.size());
+            assertThat(columns.epochDays).isEqualTo(rebuilt.epochDays);
+            assertThat(columns.months).isEqualTo(rebuilt.months);
+            assertThat(Set.of(columns.feeIds)).isEqualTo(Set.of(rebuilt.feeIds));
+            for (FeeGroupBy groupBy : FeeGroupBy.values()) {
+                // category ordinals differ, so category groups may come in another order
+                var patched = columns.aggregate(20_010, 20_070, null, groupBy);
+                var expected = rebuilt.aggregate(20_010, 20_070, null, groupBy);
+                assertThat(patched.count()).isEqualTo(expected.count());
+                assertThat(patched.total()).isEqualTo(expected.total());
+                assertThat(patched.groups()).containsExactlyInAnyOrderElementsOf(expected.groups());
+            }
+            assertThat(columns.aggregate(null, null, List.of("category 1", ""), FeeGroupBy.NONE))
+                    .isEqualTo(rebuilt.aggregate(null, null, List.of("category 1", ""), FeeGroupBy.NONE));
+        }
+    }
+
+    @Test
+    void estimatedBytes_uuidIds_countedAtStringSize() {
+        var columns = new FeeColumns(List.of(
+                new FeeColumns.Row(UUID.randomUUID().toString(), 0, 100, "Food"),
+                new FeeColumns.Row(UUID.randomUUID().toString(), 1, 200, "Food")));
+
+        assertThat(FeeColumns.stringBytes(UUID.randomUUID().toString())).isEqualTo(80);
+        assertThat(FeeColumns.stringBytes("Ăn uống")).isEqualTo(24 + 32);
+        assertThat(columns.estimatedBytes())
+                .isEqualTo(FeeColumns.BASE_BYTES + 2 * (FeeColumns.ROW_BYTES + 80) + 4 + FeeColumns.stringBytes("Food"));
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void analyze_unknownGroupBy_fail() {
+        var exception = assertThrows(AppException.class, () -> feeAnalyticsService.analyze(FeeAnalyticsRequest.builder()
+                .groupBy("week")
+                .build()));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_ANALYTICS_REQUEST);
+    }
+
+    Fee fee(String feeId, double price, String date, String categoryName) {
+        return Fee.builder()
+                .feeId(feeId)
+                .feeName("fee " + feeId)
+                .feePrice(price)
+                .date(date == null ? null : Date.from(Instant.parse(date)))
+                .categoryName(categoryName)
+                .userId(user.getUserId())
+                .build();
+    }
+}
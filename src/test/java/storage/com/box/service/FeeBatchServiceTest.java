@@ -0,0 +1,144 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.dto.request.FeeBatchRequest.FeeOperation;
+import storage.com.box.dto.request.FeeCreationRequest;
+import storage.com.box.dto.request.FeeUpdateRequest;
+import storage.com.box.dto.response.FeeBatchResponse.FeeOperationResult;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.User;
+import storage.com.box.enums.FeeOperationType;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class FeeBatchServiceTest {
+
+    @MockitoBean
+    FeeRepository feeRepository;
+    @MockitoBean
+    UserRepository userRepository;
+    @MockitoBean
+    FeeSummaryService feeSummaryService;
+
+    @Autowired
+    FeeBatchService feeBatchService;
+
+    Fee ownFee;
+    Fee otherFee;
+    List<FeeOperation> operations;
+
+    @BeforeEach
+    void initData() {
+        User user = User.builder()
+                .userId("sd2ssa3ads1sdfA11sds")
+                .userName("User test")
+                .build();
+
+        ownFee = Fee.builder()
+                .feeId("own-fee")
+                .feeName("test product")
+                .feePrice(120000)
+                .userId(user.getUserId())
+                .build();
+
+        otherFee = Fee.builder()
+                .feeId("other-fee")
+                .feeName("someone else")
+                .feePrice(5000)
+                .userId("another user id")
+                .build();
+
+        operations = new ArrayList<>(List.of(
+                FeeOperation.builder()
+                        .type(FeeOperationType.CREATE)
+                        .create(FeeCreationRequest.builder().feeName("new fee").feePrice(10).build())
+                        .build(),
+                FeeOperation.builder()
+                        .type(FeeOperationType.UPDATE)
+                        .feeId("own-fee")
+                        .update(FeeUpdateRequest.builder().feeName("renamed").feePrice(20).build())
+                        .build()));
+
+        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.of(user));
+        when(feeRepository.findAllById(ArgumentMatchers.any()))
+                .thenReturn(List.of(ownFee, otherFee));
+        when(feeRepository.saveAll(ArgumentMatchers.<List<Fee>>any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @WithMockUser(roles = {"CREATE", "UPDATE", "DELETE"}, username = "User test")
+    void apply_mixedOperations_success() {
+        operations.add(FeeOperation.builder()
+                .type(FeeOperationType.DELETE)
+                .feeId("own-fee")
+                .build());
+
+        var response = feeBatchService.apply(operations);
+
+        assertThat(response.isApplied()).isTrue();
+        assertThat(response.getResults()).extracting(FeeOperationResult::getCode).containsOnlyNulls();
+        assertThat(response.getResults().get(0).getFee().getFeeName()).isEqualTo("new fee");
+        assertThat(response.getResults().get(1).getFee().getFeeName()).isEqualTo("renamed");
+
+        verify(feeRepository, times(1)).findAllById(ArgumentMatchers.any());
+        verify(feeRepository, times(1)).saveAll(ArgumentMatchers.<List<Fee>>any());
+        verify(feeRepository).deleteAllInBatch(List.of(ownFee));
+    }
+
+    @Test
+    @WithMockUser(roles = {"CREATE", "UPDATE", "DELETE"}, username = "User test")
+    void apply_otherUsersFee_nothingWritten() {
+        operations.add(FeeOperation.builder()
+                .type(FeeOperationType.DELETE)
+                .feeId("other-fee")
+                .build());
+
+        var response = feeBatchService.apply(operations);
+
+        assertThat(response.isApplied()).isFalse();
+        assertThat(response.getResults().get(2).getCode()).isEqualTo(ErrorCode.FEE_NOT_FOUND.getCode());
+        assertThat(response.getResults().get(0).getCode()).isNull();
+
+        verify(feeRepository, never()).saveAll(ArgumentMatchers.<List<Fee>>any());
+        verify(feeRepository, never()).deleteAllInBatch(ArgumentMatchers.any());
+        assertThat(ownFee.getFeeName()).isEqualTo("test product");
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void apply_missingRole_rejected() {
+        var response = feeBatchService.apply(operations);
+
+        assertThat(response.isApplied()).isFalse();
+        assertThat(response.getResults().get(1).getCode()).isEqualTo(ErrorCode.ACCESS_DENIED.getCode());
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void apply_tooManyOperations_fail() {
+        List<FeeOperation> tooMany = Collections.nCopies(501, operations.getFirst());
+
+        var exception = assertThrows(AppException.class, () -> feeBatchService.apply(tooMany));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.FEE_BATCH_TOO_LARGE);
+    }
+}
@@ -0,0 +1,120 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.dto.response.BudgetResponse;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.FeeBudgetId;
+import storage.com.box.entity.User;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.BudgetSpend;
+import storage.com.box.repository.FeeBudgetRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class FeeBudgetServiceTest {
+
+    @MockitoBean
+    FeeBudgetRepository budgetRepository;
+    @MockitoBean
+    UserRepository userRepository;
+
+    @Autowired
+    FeeBudgetService feeBudgetService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    User user;
+
+    @BeforeEach
+    void initData() {
+        user = User.builder()
+                .userId("sd2ssa3ads1sdfA11sds")
+                .userName("User test")
+                .build();
+
+        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.of(user));
+    }
+
+    @Test
+    void overBudget_spendAboveAmount_flagged() {
+        when(budgetRepository.findSpend(user.getUserId(), "Food", 202602))
+                .thenReturn(Optional.of(new BudgetSpend("Food", 100.0, 120.5)));
+
+        Boolean overBudget = inTransaction(() -> feeBudgetService.overBudget(fee("Food", "2026-02-14T12:00:00Z")));
+
+        assertThat(overBudget).isTrue();
+    }
+
+    @Test
+    void overBudget_noBudgetOrNoDate_null() {
+        when(budgetRepository.findSpend(anyString(), anyString(), anyInt())).thenReturn(Optional.empty());
+
+        assertThat(inTransaction(() -> feeBudgetService.overBudget(fee(null, "2026-02-14T12:00:00Z")))).isNull();
+        assertThat(inTransaction(() -> feeBudgetService.overBudget(fee("Food", null)))).isNull();
+
+        verify(budgetRepository).findSpend(user.getUserId(), "", 202602);
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void getBudgets_month_spendAndRemaining() {
+        when(budgetRepository.findAllSpend(user.getUserId(), 202603))
+                .thenReturn(List.of(new BudgetSpend("", 50.0, null), new BudgetSpend("Food", 100.0, 120.0)));
+
+        var budgets = feeBudgetService.getBudgets("2026-03");
+
+        assertThat(budgets)
+                .extracting(BudgetResponse::getCategoryName, BudgetResponse::getSpent,
+                        BudgetResponse::getRemaining, BudgetResponse::isOverBudget)
+                .containsExactly(tuple(null, 0.0, 50.0, false), tuple("Food", 120.0, -20.0, true));
+        assertThat(budgets).extracting(BudgetResponse::getMonth).containsOnly("2026-03");
+    }
+
+    @Test
+    @WithMockUser(roles = "DELETE", username = "User test")
+    void deleteBudget_unknownCategory_fail() {
+        when(budgetRepository.existsById(new FeeBudgetId(user.getUserId(), "Travel"))).thenReturn(false);
+
+        var exception = assertThrows(AppException.class, () -> feeBudgetService.deleteBudget("Travel"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.BUDGET_NOT_FOUND);
+        verify(budgetRepository, never()).deleteById(any());
+    }
+
+    <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    Fee fee(String categoryName, String date) {
+        return Fee.builder()
+                .feeId("fee")
+                .feePrice(10)
+                .categoryName(categoryName)
+                .date(date == null ? null : Date.from(Instant.parse(date)))
+                .userId(user.getUserId())
+                .build();
+    }
+}
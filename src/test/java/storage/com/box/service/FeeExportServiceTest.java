@@ -0,0 +1,104 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.User;
+import storage.com.box.enums.ExportFormat;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class FeeExportServiceTest {
+
+    @MockitoBean
+    FeeRepository feeRepository;
+    @MockitoBean
+    UserRepository userRepository;
+
+    @Autowired
+    FeeExportService feeExportService;
+
+    Fee fee;
+    User user;
+
+    @BeforeEach
+    void initData() {
+        fee = Fee.builder()
+                .feeId("12sada2sad3asd43sAds2s")
+                .feeName("lunch, with \"team\"")
+                .feePrice(120000)
+                .feeDescription("test data")
+                .date(Date.from(Instant.parse("2026-03-01T10:15:30Z")))
+                .categoryName("Test")
+                .userId("sd2ssa3ads1sdfA11sds")
+                .build();
+
+        user = User.builder()
+                .userId("sd2ssa3ads1sdfA11sds")
+                .userName("User test")
+                .build();
+
+        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.of(user));
+        when(feeRepository.streamByUserId(user.getUserId()))
+                .thenAnswer(invocation -> Stream.of(fee));
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void export_csv_success() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        feeExportService.export(ExportFormat.CSV).writeTo(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(FeeExportService.CSV_HEADER
+                + "12sada2sad3asd43sAds2s,\"lunch, with \"\"team\"\"\",120000,test data,2026-03-01T10:15:30Z,Test\n");
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void export_ndjson_success() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        feeExportService.export(ExportFormat.NDJSON).writeTo(out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertThat(body).endsWith("\n").contains("\"feeId\":\"12sada2sad3asd43sAds2s\"");
+        assertThat(body.lines()).hasSize(1);
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void export_withoutGetRole_fail() {
+        assertThrows(AuthorizationDeniedException.class, () -> feeExportService.export(ExportFormat.CSV));
+    }
+
+    @Test
+    void exportFormat_unknown_fail() {
+        var exception = assertThrows(AppException.class, () -> ExportFormat.of("xml"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.UNSUPPORTED_EXPORT_FORMAT);
+    }
+}
@@ -0,0 +1,122 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.dto.response.FeeImportResponse;
+import storage.com.box.entity.User;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource(value = "/test.properties", properties = "fee.import.chunk-size=2")
+public class FeeImportServiceTest {
+
+    @MockitoBean
+    FeeRepository feeRepository;
+    @MockitoBean
+    UserRepository userRepository;
+    @MockitoBean
+    FeeSummaryService feeSummaryService;
+
+    @Autowired
+    FeeImportService feeImportService;
+
+    @BeforeEach
+    void initData() {
+        User user = User.builder()
+                .userId("sd2ssa3ads1sdfA11sds")
+                .userName("User test")
+                .build();
+
+        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.of(user));
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void importCsv_mixedRows_invalidRowsReported() {
+        var response = feeImportService.importCsv(body("""
+                fee_id,fee_name,fee_price,fee_description,date,category_name
+                ignored,lunch,12.5,"with ""team"", downtown",2026-03-01T10:15:30Z,Food
+                ,rent,abc,,,Home
+                ,"multi
+                line",3,,2026-03-02,Other
+                ,,4,,,
+                ,taxi,7,,,Travel
+                """));
+
+        assertThat(response.getImported()).isEqualTo(3);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getErrors())
+                .extracting(FeeImportResponse.RowError::getRow)
+                .containsExactly(2L, 4L);
+
+        // chunk size 2: one full chunk and the remainder
+        verify(feeRepository, times(2)).saveAll(ArgumentMatchers.any());
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void importCsv_missingHeader_fail() {
+        var exception = assertThrows(AppException.class,
+                () -> feeImportService.importCsv(body("lunch,12.5\n")));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_IMPORT_FILE);
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void importJson_mixedRows_invalidRowsReported() {
+        var response = feeImportService.importJson(body("""
+                [{"feeName": "lunch", "feePrice": 12.5, "categoryName": "Food"},
+                 {"feeName": "rent", "feePrice": "abc"},
+                 {"feeName": "taxi", "feePrice": 7}]
+                """));
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors().getFirst().getRow()).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void importJson_truncated_rowsBeforeKept() {
+        var response = feeImportService.importJson(body("""
+                [{"feeName": "lunch", "feePrice": 12.5}, {"feeName": "ta
+                """));
+
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getErrors()).hasSize(1);
+        verify(feeRepository).saveAll(ArgumentMatchers.any());
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void importJson_notAnArray_fail() {
+        var exception = assertThrows(AppException.class,
+                () -> feeImportService.importJson(body("{\"feeName\": \"lunch\"}")));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_IMPORT_FILE);
+    }
+
+    static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -7,10 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import storage.com.box.dto.request.FeeCreationRequest;
+import storage.com.box.dto.request.FeeSearchRequest;
 import storage.com.box.dto.request.FeeUpdateRequest;
 import storage.com.box.dto.response.FeeCreationResponse;
 import storage.com.box.entity.Fee;
@@ -38,6 +40,10 @@ public class FeeServiceTest {
     FeeRepository feeRepository;
     @MockitoBean
     UserRepository userRepository;
+    @MockitoBean
+    FeeSummaryService feeSummaryService;
+    @MockitoBean
+    FeeBudgetService feeBudgetService;
 
     @Autowired
     FeeService feeService;
@@ -104,6 +110,20 @@ public class FeeServiceTest {
         assertThat(response.getFeeName()).isEqualTo(request.getFeeName());
     }
 
+    @Test
+    @WithMockUser(roles = "CREATE")
+    void createFee_overBudget_flagged() {
+        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.of(user));
+        when(feeRepository.save(ArgumentMatchers.any())).thenReturn(fee);
+        when(feeBudgetService.overBudget(fee)).thenReturn(true);
+
+        var response = feeService.createFee(request);
+
+        assertThat(response.getOverBudget()).isTrue();
+        verify(feeSummaryService).apply(ArgumentMatchers.any());
+    }
+
     @Test
     @WithMockUser(roles = "UPDATE", username = "User test")
     void updateFee_validRequest_success() {
@@ -177,9 +197,10 @@ public class FeeServiceTest {
        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
                .thenReturn(Optional.of(user));
 
-       var response = feeService.getUserFee();
+       var response = feeService.getUserFee(null, null);
 
-       assertThatList(response).hasSize(0);
+       assertThatList(response.getItems()).hasSize(0);
+       assertThat(response.getNextCursor()).isNull();
 
     }
 
@@ -189,8 +210,68 @@ public class FeeServiceTest {
         when(userRepository.findByUserName(anyString()))
                 .thenReturn(Optional.empty());
 
-        var exception = assertThrows(AppException.class, () -> feeService.getUserFee());
+        var exception = assertThrows(AppException.class, () -> feeService.getUserFee(null, null));
 
         assertThat(exception.getMessage()).isEqualTo("user not exist");
     }
+
+    @Test
+    @WithMockUser(roles = "GET")
+    void getUserFee_firstPage_nextCursor() {
+        when(userRepository.findByUserName(anyString())).thenReturn(Optional.of(user));
+        when(feeRepository.findFirstDatedPage(user.getUserId(), Limit.of(3)))
+                .thenReturn(List.of(datedFee("c", 3000), datedFee("b", 2000), datedFee("a", 1000)));
+
+        var page = feeService.getUserFee(null, 2);
+
+        assertThatList(page.getItems()).extracting(FeeCreationResponse::getFeeId).containsExactly("c", "b");
+        assertThat(FeeCursor.decode(page.getNextCursor())).isEqualTo(new FeeCursor(new Date(2000), "b"));
+        verify(feeRepository, never()).findFirstUndatedPage(anyString(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "GET")
+    void getUserFee_datedFeesRunOut_undatedAppended() {
+        when(userRepository.findByUserName(anyString())).thenReturn(Optional.of(user));
+        when(feeRepository.findDatedPageAfter(user.getUserId(), new Date(2000), "b", Limit.of(3)))
+                .thenReturn(List.of(datedFee("a", 1000)));
+        when(feeRepository.findFirstUndatedPage(user.getUserId(), Limit.of(2)))
+                .thenReturn(List.of(datedFee("z", null)));
+
+        var page = feeService.getUserFee(new FeeCursor(new Date(2000), "b").encode(), 2);
+
+        assertThatList(page.getItems()).extracting(FeeCreationResponse::getFeeId).containsExactly("a", "z");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @WithMockUser(roles = "GET")
+    void getUserFee_invalidCursor_fail() {
+        when(userRepository.findByUserName(anyString())).thenReturn(Optional.of(user));
+
+        var exception = assertThrows(AppException.class, () -> feeService.getUserFee("not-a-cursor", 2));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+
+    @Test
+    @WithMockUser(roles = "GET")
+    void searchFees_unknownSort_fail() {
+        when(userRepository.findByUserName(anyString())).thenReturn(Optional.of(user));
+
+        var exception = assertThrows(AppException.class, () -> feeService.searchFees(FeeSearchRequest.builder()
+                .sort("name")
+                .build()));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_SEARCH_REQUEST);
+    }
+
+    Fee datedFee(String feeId, Integer millis) {
+        return Fee.builder()
+                .feeId(feeId)
+                .feeName("fee " + feeId)
+                .date(millis == null ? null : new Date(millis))
+                .userId(user.getUserId())
+                .build();
+    }
 }
@@ -0,0 +1,186 @@
+package storage.com.box.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authorization.AuthorizationDeniedException;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import storage.com.box.dto.response.FeeAnalyticsResponse;
+import storage.com.box.dto.response.FeeStatisticsResponse;
+import storage.com.box.dto.response.StatisticsJobResponse;
+import storage.com.box.enums.StatisticsJobStatus;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserCategoryTotal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class FeeStatisticsServiceTest {
+
+    @MockitoBean
+    FeeRepository feeRepository;
+
+    @Autowired
+    FeeStatisticsService feeStatisticsService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    List<UserCategoryTotal> rows;
+
+    @BeforeEach
+    void initData() {
+        rows = new ArrayList<>(List.of(
+                new UserCategoryTotal("0a1b", "Food", 1L, 10.0),
+                new UserCategoryTotal("7c2d", "Food", 2L, 20.0),
+                new UserCategoryTotal("7c2d", "Home", 4L, 400.0),
+                new UserCategoryTotal("fe01", null, 12L, 1.5),
+                new UserCategoryTotal("legacy-user", "Home", 1L, 100.0)));
+
+        when(feeRepository.streamUserCategoryTotals(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> inRange(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void start_allRanges_merged() throws Exception {
+        var job = awaitFinished(feeStatisticsService.start().getJobId());
+
+        assertThat(job.getStatus()).isEqualTo(StatisticsJobStatus.COMPLETED);
+        assertThat(job.getCompletedPartitions()).isEqualTo(16);
+
+        FeeStatisticsResponse result = job.getResult();
+        assertThat(result.getActiveUsers()).isEqualTo(4);
+        assertThat(result.getFeeCount()).isEqualTo(20);
+        assertThat(result.getTotal()).isEqualTo(531.5);
+        assertThat(result.getMaxFeesPerUser()).isEqualTo(12);
+        assertThat(result.getCategories())
+                .extracting(FeeAnalyticsResponse.Group::getKey, FeeAnalyticsResponse.Group::getCount)
+                .containsExactly(tuple("Home", 5L), tuple("Food", 3L), tuple(null, 12L));
+        assertThat(result.getFeesPerUser())
+                .extracting(FeeStatisticsResponse.Bucket::getMin, FeeStatisticsResponse.Bucket::getUsers)
+                .startsWith(tuple(1L, 2L), tuple(2L, 0L), tuple(6L, 1L), tuple(11L, 1L));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void cancel_runningJob_cancelled() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(feeRepository.streamUserCategoryTotals(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return inRange(invocation.getArgument(0), invocation.getArgument(1));
+                });
+
+        String jobId = feeStatisticsService.start().getJobId();
+
+        assertThat(feeStatisticsService.cancel(jobId).getStatus()).isEqualTo(StatisticsJobStatus.CANCELLING);
+        release.countDown();
+
+        var job = awaitFinished(jobId);
+
+        assertThat(job.getStatus()).isEqualTo(StatisticsJobStatus.CANCELLED);
+        assertThat(job.getResult()).isNull();
+        assertThat(job.getCompletedPartitions()).isLessThan(16);
+    }
+
+    @Test
+    void start_runsLongerThanRetention_keptUntilFinished() throws Exception {
+        AtomicLong nanos = new AtomicLong();
+        var service = new FeeStatisticsService(feeRepository, transactionManager, new SimpleMeterRegistry(),
+                1, 1, 1, 60, 60, nanos::get);
+
+        CountDownLatch release = new CountDownLatch(1);
+        when(feeRepository.streamUserCategoryTotals(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return inRange(invocation.getArgument(0), invocation.getArgument(1));
+                });
+
+        try {
+            String jobId = service.start().getJobId();
+
+            nanos.addAndGet(TimeUnit.MINUTES.toNanos(120));
+
+            assertThat(service.getJob(jobId).getStatus()).isEqualTo(StatisticsJobStatus.RUNNING);
+            var exception = assertThrows(AppException.class, service::start);
+            assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.STATISTICS_JOB_LIMIT);
+
+            release.countDown();
+            for (int i = 0; i < 100 && service.getJob(jobId).getStatus() == StatisticsJobStatus.RUNNING; i++)
+                Thread.sleep(50);
+            assertThat(service.getJob(jobId).getStatus()).isEqualTo(StatisticsJobStatus.COMPLETED);
+
+            // retention counts from the end of the job
+            nanos.addAndGet(TimeUnit.MINUTES.toNanos(59));
+            assertThat(service.getJob(jobId).getStatus()).isEqualTo(StatisticsJobStatus.COMPLETED);
+            nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+            assertThrows(AppException.class, () -> service.getJob(jobId));
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void getJob_unknownJob_fail() {
+        var exception = assertThrows(AppException.class, () -> feeStatisticsService.getJob("unknown"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.STATISTICS_JOB_NOT_FOUND);
+    }
+
+    @Test
+    @WithMockUser(roles = "GET")
+    void start_notAdmin_fail() {
+        assertThrows(AuthorizationDeniedException.class, () -> feeStatisticsService.start());
+    }
+
+    @Test
+    void partitions_coverEveryUserOnce() {
+        var ranges = FeeStatisticsService.partitions(256);
+
+        assertThat(ranges).hasSize(256);
+        assertThat(ranges.getFirst().from()).isEmpty();
+        assertThat(ranges.get(1).from()).isEqualTo("01");
+        assertThat(ranges.getLast()).isEqualTo(new FeeStatisticsService.UserRange("ff", null));
+        assertThrows(IllegalArgumentException.class, () -> FeeStatisticsService.partitions(10));
+    }
+
+    StatisticsJobResponse awaitFinished(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            var job = feeStatisticsService.getJob(jobId);
+            if (job.getStatus() != StatisticsJobStatus.RUNNING && job.getStatus() != StatisticsJobStatus.CANCELLING)
+                return job;
+
+            Thread.sleep(50);
+        }
+
+        throw new AssertionError("statistics job did not finish");
+    }
+
+    Stream<UserCategoryTotal> inRange(String from, String to) {
+        return rows.stream()
+                .filter(row -> row.userId().compareTo(from) >= 0 && (to == null || row.userId().compareTo(to) < 0))
+                .sorted(Comparator.comparing(UserCategoryTotal::userId));
+    }
+}
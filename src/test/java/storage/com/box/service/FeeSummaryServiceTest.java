@@ -0,0 +1,148 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.FeeMonthlySummary;
+import storage.com.box.entity.FeeMonthlySummaryId;
+import storage.com.box.entity.User;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.FeeMonthlySummaryRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class FeeSummaryServiceTest {
+
+    @MockitoBean
+    FeeMonthlySummaryRepository summaryRepository;
+    @MockitoBean
+    UserRepository userRepository;
+
+    @Autowired
+    FeeSummaryService feeSummaryService;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    Fee fee;
+
+    @BeforeEach
+    void initData() {
+        fee = Fee.builder()
+                .feeId("12sada2sad3asd43sAds2s")
+                .feeName("test product")
+                .feePrice(120)
+                .date(Date.from(Instant.parse("2026-01-31T23:30:00Z")))
+                .categoryName("Test")
+                .userId("sd2ssa3ads1sdfA11sds")
+                .build();
+    }
+
+    @Test
+    void apply_update_oldAndNewRowsChanged() {
+        when(summaryRepository.increment(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyDouble()))
+                .thenReturn(1);
+
+        FeeSummaryDelta delta = new FeeSummaryDelta().remove(fee);
+        fee.setFeePrice(100);
+        fee.setCategoryName("Other");
+        delta.add(fee);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> feeSummaryService.apply(delta));
+
+        verify(summaryRepository).increment("sd2ssa3ads1sdfA11sds", 202601, "Test", -1, -120);
+        verify(summaryRepository).increment("sd2ssa3ads1sdfA11sds", 202601, "Other", 1, 100);
+    }
+
+    @Test
+    void apply_priceOnlyUpdate_countUnchanged() {
+        when(summaryRepository.increment(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyDouble()))
+                .thenReturn(1);
+
+        FeeSummaryDelta delta = new FeeSummaryDelta().remove(fee);
+        fee.setFeePrice(150);
+        delta.add(fee);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> feeSummaryService.apply(delta));
+
+        verify(summaryRepository).increment("sd2ssa3ads1sdfA11sds", 202601, "Test", 0, 30);
+        verify(summaryRepository, times(1)).increment(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(),
+                ArgumentMatchers.anyString(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyDouble());
+    }
+
+    @Test
+    void apply_removalFromMissingRow_skipped() {
+        when(summaryRepository.increment("sd2ssa3ads1sdfA11sds", 202601, "Test", -1, -120))
+                .thenReturn(0);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                feeSummaryService.apply(new FeeSummaryDelta().remove(fee)));
+
+        verify(summaryRepository).increment("sd2ssa3ads1sdfA11sds", 202601, "Test", -1, -120);
+        verifyNoMoreInteractions(summaryRepository);
+    }
+
+    @Test
+    void apply_noTransaction_fail() {
+        assertThrows(IllegalTransactionStateException.class, () ->
+                feeSummaryService.apply(new FeeSummaryDelta().add(fee)));
+
+        verifyNoInteractions(summaryRepository);
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void getSummary_validRange_groupedByMonth() {
+        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.of(User.builder().userId("sd2ssa3ads1sdfA11sds").build()));
+        when(summaryRepository.findRange("sd2ssa3ads1sdfA11sds", 202601, 202603)).thenReturn(List.of(
+                row(202601, "", 1, 7),
+                row(202601, "Test", 2, 30),
+                row(202603, "Test", 1, 5)));
+
+        var summary = feeSummaryService.getSummary("2026-01", "2026-03");
+
+        assertThat(summary).hasSize(2);
+        assertThat(summary.getFirst().getMonth()).isEqualTo("2026-01");
+        assertThat(summary.getFirst().getCount()).isEqualTo(3);
+        assertThat(summary.getFirst().getTotal()).isEqualTo(37);
+        assertThat(summary.getFirst().getCategories().getFirst().getCategoryName()).isNull();
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void getSummary_invertedRange_fail() {
+        var exception = assertThrows(AppException.class, () -> feeSummaryService.getSummary("2026-03", "2026-01"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.INVALID_SUMMARY_RANGE);
+    }
+
+    static FeeMonthlySummary row(int month, String categoryName, long count, double total) {
+        return FeeMonthlySummary.builder()
+                .id(new FeeMonthlySummaryId("sd2ssa3ads1sdfA11sds", month, categoryName))
+                .feeCount(count)
+                .total(total)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.FeeMonthlySummary;
+import storage.com.box.entity.FeeMonthlySummaryId;
+import storage.com.box.repository.FeeMonthlySummaryRepository;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link FeeSummaryService#apply} against real tables, the other summary tests
+ * mock the repository.
+ */
+@SpringBootTest
+@TestPropertySource(value = "/test.properties", properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "fee.summary.backfill-on-startup=false"})
+public class FeeSummaryUpsertTest {
+
+    static final FeeMonthlySummaryId ID = new FeeMonthlySummaryId("sd2ssa3ads1sdfA11sds", 202601, "Test");
+
+    @Autowired
+    FeeSummaryService feeSummaryService;
+    @Autowired
+    FeeMonthlySummaryRepository summaryRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Fee fee;
+
+    @BeforeEach
+    void initData() {
+        summaryRepository.deleteAll();
+
+        fee = Fee.builder()
+                .feeId("12sada2sad3asd43sAds2s")
+                .feeName("test product")
+                .feePrice(120)
+                .date(Date.from(Instant.parse("2026-01-31T23:30:00Z")))
+                .categoryName("Test")
+                .userId("sd2ssa3ads1sdfA11sds")
+                .build();
+    }
+
+    @Test
+    void apply_missingRow_inserted() {
+        apply(new FeeSummaryDelta().add(fee));
+
+        FeeMonthlySummary row = summaryRepository.findById(ID).orElseThrow();
+        assertThat(row.getFeeCount()).isEqualTo(1);
+        assertThat(row.getTotal()).isEqualTo(120);
+    }
+
+    @Test
+    void apply_existingRow_incremented() {
+        apply(new FeeSummaryDelta().add(fee));
+        fee.setFeePrice(30);
+        apply(new FeeSummaryDelta().add(fee));
+
+        FeeMonthlySummary row = summaryRepository.findById(ID).orElseThrow();
+        assertThat(row.getFeeCount()).isEqualTo(2);
+        assertThat(row.getTotal()).isEqualTo(150);
+    }
+
+    @Test
+    void upsert_existingRow_added() {
+        apply(new FeeSummaryDelta().add(fee));
+
+        // the path a concurrent writer takes when its UPDATE ran before the row existed
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                feeSummaryService.upsert(ID, 2, 5));
+
+        FeeMonthlySummary row = summaryRepository.findById(ID).orElseThrow();
+        assertThat(row.getFeeCount()).isEqualTo(3);
+        assertThat(row.getTotal()).isEqualTo(125);
+    }
+
+    @Test
+    void upsertMysql_existingRow_added() {
+        apply(new FeeSummaryDelta().add(fee));
+
+        // the test database runs in MySQL mode, which parses the MySQL statement too
+        jdbcTemplate.update(FeeSummaryService.UPSERT_MYSQL, ID.getUserId(), ID.getMonth(), ID.getCategoryName(), 2L, 5.0);
+        jdbcTemplate.update(FeeSummaryService.UPSERT_MYSQL, "other user", ID.getMonth(), ID.getCategoryName(), 1L, 7.0);
+
+        assertThat(summaryRepository.findById(ID).orElseThrow().getFeeCount()).isEqualTo(3);
+        assertThat(summaryRepository.findById(new FeeMonthlySummaryId("other user", ID.getMonth(), ID.getCategoryName()))
+                .orElseThrow().getTotal()).isEqualTo(7);
+    }
+
+    @Test
+    void apply_removalFromMissingRow_noNegativeRow() {
+        apply(new FeeSummaryDelta().remove(fee));
+
+        assertThat(summaryRepository.findById(ID)).isEmpty();
+    }
+
+    void apply(FeeSummaryDelta delta) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> feeSummaryService.apply(delta));
+    }
+}
@@ -0,0 +1,153 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.dto.response.FeeCreationResponse;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.User;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class FeeTextSearchServiceTest {
+
+    @MockitoBean
+    FeeRepository feeRepository;
+    @MockitoBean
+    UserRepository userRepository;
+
+    @Autowired
+    FeeTextSearchService feeTextSearchService;
+
+    Map<String, Fee> fees;
+    User user;
+
+    @BeforeEach
+    void initData() {
+        // a fresh user per test, indexes outlive a single test
+        user = User.builder()
+                .userId(UUID.randomUUID().toString())
+                .userName("User test")
+                .build();
+
+        fees = new LinkedHashMap<>();
+        fee("dentist", "Dentist bill", "Check-up at the clinic", 3000);
+        fee("coffee", "Cà phê sữa", "morning coffee", 2000);
+        fee("rent", "Rent", "apartment downtown", 1000);
+
+        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.of(user));
+        when(feeRepository.streamByUserId(user.getUserId()))
+                .thenAnswer(invocation -> fees.values().stream());
+        when(feeRepository.findAllById(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    List<Fee> found = new ArrayList<>();
+                    for (Object feeId : (Iterable<?>) invocation.getArgument(0))
+                        Optional.ofNullable(fees.get(feeId)).ifPresent(found::add);
+                    return found;
+                });
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void search_prefixAndInfix_matched() {
+        assertThat(ids(feeTextSearchService.search("that dent bill", 10))).isEmpty();
+        assertThat(ids(feeTextSearchService.search("dent bill", 10))).containsExactly("dentist");
+        assertThat(ids(feeTextSearchService.search("town", 10))).containsExactly("rent");
+        assertThat(ids(feeTextSearchService.search("ca phe", 10))).containsExactly("coffee");
+
+        // built once, later searches only read the index
+        verify(feeRepository, times(1)).streamByUserId(user.getUserId());
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void search_exactBeforePrefix_ranked() {
+        fee("coffee-beans", "Coffees", "beans", 4000);
+
+        assertThat(ids(feeTextSearchService.search("coffee", 10))).containsExactly("coffee", "coffee-beans");
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void onFeeChanged_builtIndex_updated() {
+        feeTextSearchService.search("rent", 10);
+
+        Fee gym = fee("gym", "Gym membership", null, 5000);
+        feeTextSearchService.onFeeChanged(FeeChangedEvent.saved(user.getUserId(), List.of(response(gym))));
+        feeTextSearchService.onFeeChanged(FeeChangedEvent.deleted(user.getUserId(), List.of("rent")));
+
+        assertThat(ids(feeTextSearchService.search("member", 10))).containsExactly("gym");
+        assertThat(ids(feeTextSearchService.search("rent", 10))).isEmpty();
+        verify(feeRepository, times(1)).streamByUserId(user.getUserId());
+    }
+
+    @Test
+    @WithMockUser(roles = "GET", username = "User test")
+    void onFeeChanged_duringBuild_appliedToBuiltIndex() throws Exception {
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(feeRepository.streamByUserId(user.getUserId()))
+                .thenAnswer(invocation -> {
+                    List<Fee> snapshot = List.copyOf(fees.values());
+                    streaming.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return snapshot.stream();
+                });
+
+        var building = CompletableFuture.supplyAsync(() -> feeTextSearchService.indexOf(user.getUserId()));
+        assertThat(streaming.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // committed after the build read its snapshot
+        Fee gym = fee("gym", "Gym membership", null, 5000);
+        feeTextSearchService.onFeeChanged(FeeChangedEvent.saved(user.getUserId(), List.of(response(gym))));
+        feeTextSearchService.onFeeChanged(FeeChangedEvent.deleted(user.getUserId(), List.of("rent")));
+        release.countDown();
+        building.get(5, TimeUnit.SECONDS);
+
+        assertThat(ids(feeTextSearchService.search("member", 10))).containsExactly("gym");
+        assertThat(ids(feeTextSearchService.search("rent", 10))).isEmpty();
+        verify(feeRepository, times(1)).streamByUserId(user.getUserId());
+    }
+
+    Fee fee(String feeId, String feeName, String feeDescription, long date) {
+        Fee fee = Fee.builder()
+                .feeId(feeId)
+                .feeName(feeName)
+                .feeDescription(feeDescription)
+                .date(new Date(date))
+                .userId(user.getUserId())
+                .build();
+
+        fees.put(feeId, fee);
+        return fee;
+    }
+
+    static FeeCreationResponse response(Fee fee) {
+        return FeeCreationResponse.builder()
+                .feeId(fee.getFeeId())
+                .feeName(fee.getFeeName())
+                .feeDescription(fee.getFeeDescription())
+                .date(fee.getDate())
+                .build();
+    }
+
+    static List<String> ids(List<FeeCreationResponse> responses) {
+        return responses.stream().map(FeeCreationResponse::getFeeId).toList();
+    }
+}
@@ -0,0 +1,51 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.repository.InvalidTokenRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = "jwt.revocation.purge.batch-size=2")
+public class InvalidTokenPurgeJobTest {
+
+    @MockitoBean
+    InvalidTokenRepository invalidTokenRepository;
+
+    @Autowired
+    InvalidTokenPurgeJob invalidTokenPurgeJob;
+
+    @Test
+    void purgeExpired_multipleBatches_success() {
+        when(invalidTokenRepository.findExpiredIds(any(), any(Pageable.class)))
+                .thenReturn(List.of("a", "b"))
+                .thenReturn(List.of("c"));
+
+        int purged = invalidTokenPurgeJob.purgeExpired();
+
+        assertThat(purged).isEqualTo(3);
+        verify(invalidTokenRepository).deleteAllByIdInBatch(List.of("a", "b"));
+        verify(invalidTokenRepository).deleteAllByIdInBatch(List.of("c"));
+    }
+
+    @Test
+    void purgeExpired_nothingExpired_noDelete() {
+        when(invalidTokenRepository.findExpiredIds(any(), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        int purged = invalidTokenPurgeJob.purgeExpired();
+
+        assertThat(purged).isZero();
+        verify(invalidTokenRepository, never()).deleteAllByIdInBatch(anyList());
+    }
+}
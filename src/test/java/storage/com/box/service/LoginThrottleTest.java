@@ -0,0 +1,128 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.dto.request.AuthenticationRequest;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.UserRepository;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource(value = "/test.properties", properties = {
+        "security.login-throttle.per-username=3",
+        "security.login-throttle.per-ip=5"
+})
+public class LoginThrottleTest {
+
+    @MockitoBean
+    UserRepository userRepository;
+
+    @Autowired
+    LoginThrottle loginThrottle;
+    @Autowired
+    AuthenticationService authenticationService;
+
+    @Test
+    void acquire_usernameLimitReached_fail() {
+        for (int i = 0; i < 3; i++)
+            assertDoesNotThrow(() -> loginThrottle.acquire("Limited", "10.0.0.1"));
+
+        // usernames are matched case-insensitively
+        var exception = assertThrows(AppException.class,
+                () -> loginThrottle.acquire("limited", "10.0.0.2"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        assertThat(exception.getRetryAfterSeconds()).isPositive();
+        assertDoesNotThrow(() -> loginThrottle.acquire("someone else", "10.0.0.2"));
+    }
+
+    @Test
+    void acquire_ipLimitReached_fail() {
+        for (int i = 0; i < 5; i++) {
+            String userName = "ip user " + i;
+            assertDoesNotThrow(() -> loginThrottle.acquire(userName, "10.0.0.9"));
+        }
+
+        var exception = assertThrows(AppException.class,
+                () -> loginThrottle.acquire("ip user 5", "10.0.0.9"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        assertDoesNotThrow(() -> loginThrottle.acquire("ip user 5", "10.0.0.10"));
+    }
+
+    @Test
+    void authenticate_throttled_noUserLookup() {
+        when(userRepository.findByUserName(anyString())).thenReturn(Optional.empty());
+
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .userName("stuffed")
+                .password("wrong password")
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            var exception = assertThrows(AppException.class,
+                    () -> authenticationService.authenticate(request, "10.0.1.1"));
+            assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.USER_NOT_EXIST);
+        }
+
+        var exception = assertThrows(AppException.class,
+                () -> authenticationService.authenticate(request, "10.0.1.1"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        verify(userRepository, times(3)).findByUserName("stuffed");
+    }
+
+    @Test
+    void slidingWindow_oldSlots_notCounted() {
+        LoginThrottle.SlidingWindow window = new LoginThrottle.SlidingWindow();
+        long slotMillis = 1000;
+
+        assertThat(window.tryAcquire(0, slotMillis, 2)).isTrue();
+        assertThat(window.tryAcquire(500, slotMillis, 2)).isTrue();
+        assertThat(window.tryAcquire(900, slotMillis, 2)).isFalse();
+
+        // a full window later the first slot is reused and the old attempts drop out
+        long later = LoginThrottle.SLOTS * slotMillis;
+        assertThat(window.tryAcquire(later, slotMillis, 2)).isTrue();
+        assertThat(window.sum(later * 3 / slotMillis)).isZero();
+    }
+
+    @Test
+    void acquire_throttledIp_noUsernameWindows() {
+        for (int i = 0; i < 5; i++) {
+            String userName = "spray " + i;
+            assertDoesNotThrow(() -> loginThrottle.acquire(userName, "10.0.2.1"));
+        }
+
+        long tracked = loginThrottle.trackedKeys();
+
+        for (int i = 5; i < 100; i++) {
+            String userName = "spray " + i;
+            assertThrows(AppException.class, () -> loginThrottle.acquire(userName, "10.0.2.1"));
+        }
+
+        assertThat(loginThrottle.trackedKeys()).isEqualTo(tracked);
+    }
+
+    @Test
+    void windows_overMaxKeys_bounded() {
+        var windows = LoginThrottle.windows(10, 60_000);
+
+        for (int i = 0; i < 1000; i++)
+            windows.get("user " + i, key -> new LoginThrottle.SlidingWindow());
+        windows.cleanUp();
+
+        assertThat(windows.estimatedSize()).isLessThanOrEqualTo(10);
+    }
+}
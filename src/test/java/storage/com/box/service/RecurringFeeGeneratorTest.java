@@ -0,0 +1,108 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.entity.Fee;
+import storage.com.box.entity.RecurringFee;
+import storage.com.box.repository.FeeRepository;
+import storage.com.box.repository.RecurringFeeRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource(value = "/test.properties", properties = "fee.recurring.chunk-size=3")
+public class RecurringFeeGeneratorTest {
+
+    @MockitoBean
+    RecurringFeeRepository recurringFeeRepository;
+    @MockitoBean
+    FeeRepository feeRepository;
+    @MockitoBean
+    FeeSummaryService feeSummaryService;
+    @MockitoBean
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    RecurringFeeGenerator recurringFeeGenerator;
+
+    RecurringFee template;
+
+    @BeforeEach
+    void initData() {
+        // daily at 09:00 UTC, last generated occurrence a week ago
+        template = RecurringFee.builder()
+                .recurringFeeId("recurring-rent")
+                .userId("sd2ssa3ads1sdfA11sds")
+                .feeName("rent")
+                .feePrice(500)
+                .categoryName("Home")
+                .cron("0 0 9 * * *")
+                .nextRun(Date.from(Instant.now().minus(Duration.ofDays(7))))
+                .build();
+
+        when(recurringFeeRepository.findDue(ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> template.getNextRun() != null
+                        && !template.getNextRun().after(invocation.getArgument(0))
+                        ? List.of(template)
+                        : List.of());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateDue_catchUp_insertedInBoundedChunks() {
+        Date before = new Date();
+
+        int generated = recurringFeeGenerator.generateDue();
+
+        ArgumentCaptor<Collection<Fee>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, atLeast(3)).batchUpdate(eq(RecurringFeeGenerator.INSERT_FEE), batches.capture(),
+                ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+
+        List<Fee> fees = batches.getAllValues().stream().flatMap(Collection::stream).toList();
+
+        assertThat(generated).isBetween(7, 8).isEqualTo(fees.size());
+        assertThat(batches.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(3));
+        assertThat(fees).extracting(Fee::getFeeId).doesNotHaveDuplicates();
+        assertThat(fees).allSatisfy(fee -> assertThat(fee.getDate()).isBeforeOrEqualTo(before));
+        assertThat(template.getNextRun()).isAfter(before);
+        verify(feeSummaryService, times(batches.getAllValues().size())).apply(ArgumentMatchers.any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void generateChunk_existingOccurrences_skipped() {
+        Date first = template.getNextRun();
+        when(feeRepository.findExistingIds(ArgumentMatchers.any()))
+                .thenReturn(List.of(RecurringFeeGenerator.occurrenceId(template.getRecurringFeeId(), first)));
+
+        var chunk = recurringFeeGenerator.generateChunk(new Date());
+
+        ArgumentCaptor<Collection<Fee>> batch = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(eq(RecurringFeeGenerator.INSERT_FEE), batch.capture(),
+                ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+
+        assertThat(chunk.inserted()).isEqualTo(2);
+        assertThat(batch.getValue()).extracting(Fee::getDate).doesNotContain(first);
+    }
+
+    @Test
+    void occurrenceId_sameOccurrence_sameId() {
+        Date date = new Date(1767258000000L);
+
+        assertThat(RecurringFeeGenerator.occurrenceId("a", date))
+                .isEqualTo(RecurringFeeGenerator.occurrenceId("a", new Date(date.getTime())))
+                .isNotEqualTo(RecurringFeeGenerator.occurrenceId("b", date));
+    }
+}
@@ -0,0 +1,104 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.dto.request.RecurringFeeRequest;
+import storage.com.box.entity.RecurringFee;
+import storage.com.box.entity.User;
+import storage.com.box.exception.AppException;
+import storage.com.box.exception.ErrorCode;
+import storage.com.box.repository.RecurringFeeRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class RecurringFeeServiceTest {
+
+    @MockitoBean
+    RecurringFeeRepository recurringFeeRepository;
+    @MockitoBean
+    UserRepository userRepository;
+
+    @Autowired
+    RecurringFeeService recurringFeeService;
+
+    User user;
+    RecurringFeeRequest request;
+
+    @BeforeEach
+    void initData() {
+        user = User.builder()
+                .userId("sd2ssa3ads1sdfA11sds")
+                .userName("User test")
+                .build();
+
+        request = RecurringFeeRequest.builder()
+                .feeName("rent")
+                .feePrice(500)
+                .categoryName("Home")
+                .cron("0 0 9 1 * *")
+                .startAt(Date.from(Instant.parse("2026-01-15T00:00:00Z")))
+                .build();
+
+        when(userRepository.findByUserName(ArgumentMatchers.anyString()))
+                .thenReturn(Optional.of(user));
+        when(recurringFeeRepository.save(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void createRecurringFee_monthly_firstRunAfterStart() {
+        var response = recurringFeeService.createRecurringFee(request);
+
+        assertThat(response.getNextRun()).isEqualTo(Date.from(Instant.parse("2026-02-01T09:00:00Z")));
+        verify(recurringFeeRepository).save(ArgumentMatchers.argThat(saved -> user.getUserId().equals(saved.getUserId())));
+    }
+
+    @Test
+    @WithMockUser(roles = "CREATE", username = "User test")
+    void createRecurringFee_invalidSchedule_fail() {
+        request.setCron("0 * * * * *");
+        var tooFrequent = assertThrows(AppException.class, () -> recurringFeeService.createRecurringFee(request));
+
+        request.setCron("every month");
+        var unparsable = assertThrows(AppException.class, () -> recurringFeeService.createRecurringFee(request));
+
+        request.setCron("0 0 9 1 * *");
+        request.setEndAt(Date.from(Instant.parse("2026-01-20T00:00:00Z")));
+        var endsBeforeFirstRun = assertThrows(AppException.class, () -> recurringFeeService.createRecurringFee(request));
+
+        assertThat(tooFrequent.getErrorCode()).isEqualTo(ErrorCode.INVALID_RECURRING_FEE);
+        assertThat(unparsable.getErrorCode()).isEqualTo(ErrorCode.INVALID_RECURRING_FEE);
+        assertThat(endsBeforeFirstRun.getErrorCode()).isEqualTo(ErrorCode.INVALID_RECURRING_FEE);
+        verify(recurringFeeRepository, never()).save(ArgumentMatchers.any());
+    }
+
+    @Test
+    @WithMockUser(roles = "DELETE", username = "User test")
+    void deleteRecurringFee_otherUser_fail() {
+        when(recurringFeeRepository.findById("recurring-rent")).thenReturn(Optional.of(RecurringFee.builder()
+                .recurringFeeId("recurring-rent")
+                .userId("another-user")
+                .build()));
+
+        var exception = assertThrows(AppException.class, () -> recurringFeeService.deleteRecurringFee("recurring-rent"));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.RECURRING_FEE_NOT_FOUND);
+        verify(recurringFeeRepository, never()).delete(ArgumentMatchers.any());
+    }
+}
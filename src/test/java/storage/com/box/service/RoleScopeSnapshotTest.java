@@ -0,0 +1,97 @@
+package storage.com.box.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.entity.Permission;
+import storage.com.box.entity.Role;
+import storage.com.box.repository.RoleRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class RoleScopeSnapshotTest {
+
+    @MockitoBean
+    RoleRepository roleRepository;
+
+    @Autowired
+    RoleScopeSnapshot roleScopeSnapshot;
+
+    Role user;
+    Role admin;
+
+    @BeforeEach
+    void initData() {
+        user = Role.builder()
+                .name("USER")
+                .permissions(Set.of(
+                        Permission.builder().name("GET").build(),
+                        Permission.builder().name("CREATE").build()))
+                .build();
+
+        admin = Role.builder()
+                .name("ADMIN")
+                .permissions(Set.of(Permission.builder().name("DELETE").build()))
+                .build();
+
+        when(roleRepository.findAllWithPermissions()).thenReturn(List.of(user, admin));
+        roleScopeSnapshot.refresh();
+    }
+
+    @Test
+    void scopeOf_knownRoles_fromSnapshot() {
+        // the entities passed in carry no permissions, the snapshot provides them
+        var roles = Set.of(Role.builder().name("USER").build(), Role.builder().name("ADMIN").build());
+
+        assertThat(roleScopeSnapshot.scopeOf(roles)).isEqualTo("ADMIN DELETE USER CREATE GET");
+    }
+
+    @Test
+    void scopeOf_unknownRole_fallbackToEntity() {
+        Role guest = Role.builder()
+                .name("GUEST")
+                .permissions(Set.of(Permission.builder().name("VIEW").build()))
+                .build();
+
+        assertThat(roleScopeSnapshot.scopeOf(Set.of(guest))).isEqualTo("GUEST VIEW");
+    }
+
+    @Test
+    void putRole_newVersion_success() {
+        long version = roleScopeSnapshot.version();
+
+        roleScopeSnapshot.putRole(Role.builder()
+                .name("USER")
+                .permissions(Set.of(Permission.builder().name("UPDATE").build()))
+                .build());
+
+        assertThat(roleScopeSnapshot.version()).isGreaterThan(version);
+        assertThat(roleScopeSnapshot.scopeOf(Set.of(Role.builder().name("USER").build())))
+                .isEqualTo("USER UPDATE");
+    }
+
+    @Test
+    void removePermission_patchedRoles_success() {
+        roleScopeSnapshot.removePermission("GET");
+
+        assertThat(roleScopeSnapshot.scopeOf(Set.of(Role.builder().name("USER").build())))
+                .isEqualTo("USER CREATE");
+    }
+
+    @Test
+    void removeRole_notInSnapshot_success() {
+        roleScopeSnapshot.removeRole("ADMIN");
+
+        assertThat(roleScopeSnapshot.scopeOf(Set.of(Role.builder().name("ADMIN").build())))
+                .isEqualTo("ADMIN");
+    }
+}
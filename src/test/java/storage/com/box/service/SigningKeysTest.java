@@ -0,0 +1,135 @@
+package storage.com.box.service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.Payload;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import storage.com.box.exception.AppException;
+import storage.com.box.repository.InvalidTokenRepository;
+import storage.com.box.repository.UserRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@TestPropertySource(value = "/test.properties", properties = "jwt.signing.algorithm=ES256")
+@AutoConfigureMockMvc
+public class SigningKeysTest {
+
+    @MockitoBean
+    UserRepository userRepository;
+    @MockitoBean
+    InvalidTokenRepository invalidTokenRepository;
+
+    @Autowired
+    SigningKeys signingKeys;
+    @Autowired
+    TokenIssuer tokenIssuer;
+    @Autowired
+    AuthenticationService authenticationService;
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void issue_es256_verifiedWithPublishedKey() throws Exception {
+        String token = tokenIssuer.issue("test user", "USER", 0, false);
+
+        JWSHeader header = SignedJWT.parse(token).getHeader();
+        assertThat(header.getAlgorithm()).isEqualTo(JWSAlgorithm.ES256);
+        assertThat(header.getKeyID()).isNotNull();
+
+        JWKSet published = JWKSet.parse(signingKeys.publicJwkSet());
+        assertThat(published.getKeyByKeyId(header.getKeyID())).isNotNull();
+        assertThat(published.getKeys()).noneMatch(key -> key.isPrivate());
+
+        assertNotNull(authenticationService.verifyToken(token, "access"));
+    }
+
+    @Test
+    void rotate_oldTokens_stillVerified() throws Exception {
+        String before = tokenIssuer.issue("test user", "USER", 0, false);
+        String oldKeyId = SignedJWT.parse(before).getHeader().getKeyID();
+
+        String newKeyId = signingKeys.rotate();
+        String after = tokenIssuer.issue("test user", "USER", 0, false);
+
+        assertThat(newKeyId).isNotEqualTo(oldKeyId);
+        assertThat(SignedJWT.parse(after).getHeader().getKeyID()).isEqualTo(newKeyId);
+        assertNotNull(authenticationService.verifyToken(before, "access"));
+        assertNotNull(authenticationService.verifyToken(after, "access"));
+
+        JWKSet published = JWKSet.parse(signingKeys.publicJwkSet());
+        assertThat(published.getKeyByKeyId(oldKeyId)).isNotNull();
+        assertThat(published.getKeyByKeyId(newKeyId)).isNotNull();
+    }
+
+    @Test
+    void verifyToken_hmacTokenInEcMode_fail() throws Exception {
+        String payload = SignedJWT.parse(tokenIssuer.issue("test user", "USER", 0, false))
+                .getPayload().toString();
+
+        JWSObject forged = new JWSObject(new JWSHeader(JWSAlgorithm.HS256), new Payload(payload));
+        forged.sign(new MACSigner("12345678901234567890123456789012".getBytes()));
+
+        assertThrows(AppException.class,
+                () -> authenticationService.verifyToken(forged.serialize(), "access"));
+    }
+
+    @Test
+    void loadKeyFile_firstKeySigns_success(@TempDir Path dir) throws Exception {
+        var first = SigningKeys.generateKey();
+        var second = SigningKeys.generateKey();
+
+        Path file = dir.resolve("keys.json");
+        Files.writeString(file, new JWKSet(List.of(first, second)).toString(false));
+
+        var ring = SigningKeys.loadKeyFile(file.toFile());
+
+        assertThat(ring.active().getKeyID()).isEqualTo(first.getKeyID());
+        assertThat(ring.verifiers()).containsOnlyKeys(first.getKeyID(), second.getKeyID());
+    }
+
+    @Test
+    void withoutExpired_expiredRetiredKey_dropped() throws Exception {
+        var active = SigningKeys.generateKey();
+        var expired = SigningKeys.generateKey();
+        var valid = SigningKeys.generateKey();
+        long now = System.currentTimeMillis();
+
+        var ring = SigningKeys.KeyRing.of(active, List.of(
+                new SigningKeys.RetiredKey(expired, now - 1),
+                new SigningKeys.RetiredKey(valid, now + 60_000)));
+        var current = ring.withoutExpired(now);
+
+        assertThat(current.verifiers()).containsOnlyKeys(active.getKeyID(), valid.getKeyID());
+        assertThat(JWKSet.parse(current.publicJwkSet()).getKeyByKeyId(expired.getKeyID())).isNull();
+        assertThat(current.nextExpiry()).isEqualTo(now + 60_000);
+        assertThat(current.withoutExpired(now)).isSameAs(current);
+    }
+
+    @Test
+    void keys_unauthenticated_success() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/auth/keys"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("keys[0].kty").value("EC"))
+                .andExpect(MockMvcResultMatchers.jsonPath("keys[0].d").doesNotExist());
+    }
+}
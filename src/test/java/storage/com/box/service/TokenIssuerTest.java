@@ -0,0 +1,55 @@
+package storage.com.box.service;
+
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class TokenIssuerTest {
+
+    @Autowired
+    TokenIssuer tokenIssuer;
+
+    @Test
+    void issue_tokenPair_success() throws Exception {
+        var tokens = tokenIssuer.issue("test user", "USER GET", 3);
+
+        SignedJWT access = SignedJWT.parse(tokens.accessToken());
+        SignedJWT refresh = SignedJWT.parse(tokens.refreshToken());
+
+        MACVerifier verifier = new MACVerifier("12345678901234567890123456789012".getBytes());
+        assertThat(access.verify(verifier)).isTrue();
+        assertThat(refresh.verify(verifier)).isTrue();
+
+        JWTClaimsSet accessClaims = access.getJWTClaimsSet();
+        JWTClaimsSet refreshClaims = refresh.getJWTClaimsSet();
+
+        assertThat(accessClaims.getSubject()).isEqualTo("test user");
+        assertThat(accessClaims.getIssuer()).isEqualTo(TokenIssuer.ISSUER);
+        assertThat(accessClaims.getStringClaim("scope")).isEqualTo("USER GET");
+        assertThat(accessClaims.getLongClaim(TokenEpochCache.CLAIM)).isEqualTo(3L);
+        assertThat(refreshClaims.getLongClaim(TokenEpochCache.CLAIM)).isEqualTo(3L);
+        assertThat(accessClaims.getStringClaim("token_type")).isEqualTo("access");
+        assertThat(refreshClaims.getStringClaim("token_type")).isEqualTo("refresh");
+        assertThat(accessClaims.getIssueTime()).isEqualTo(refreshClaims.getIssueTime());
+        assertThat(accessClaims.getJWTID()).isNotEqualTo(refreshClaims.getJWTID());
+        assertThat(refreshClaims.getExpirationTime()).isAfter(accessClaims.getExpirationTime());
+    }
+
+    @Test
+    void issue_specialCharacters_escaped() throws Exception {
+        String token = tokenIssuer.issue("quote\" back\\slash\nline", "", 0, false);
+
+        JWTClaimsSet claims = SignedJWT.parse(token).getJWTClaimsSet();
+
+        assertThat(claims.getSubject()).isEqualTo("quote\" back\\slash\nline");
+        assertThat(claims.getStringClaim("scope")).isEmpty();
+    }
+}
@@ -0,0 +1,142 @@
+package storage.com.box.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import storage.com.box.entity.InvalidToken;
+import storage.com.box.repository.InvalidTokenRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class TokenRevocationStoreTest {
+
+    @MockitoBean
+    InvalidTokenRepository invalidTokenRepository;
+
+    @Autowired
+    TokenRevocationStore tokenRevocationStore;
+
+    @Test
+    void revoke_validToken_success() {
+        String jwtId = UUID.randomUUID().toString();
+
+        tokenRevocationStore.revoke(jwtId, new Date(System.currentTimeMillis() + 60_000));
+
+        assertThat(tokenRevocationStore.isRevoked(jwtId)).isTrue();
+        verify(invalidTokenRepository, never()).existsById(anyString());
+    }
+
+    @Test
+    void revoke_expiredToken_ignored() {
+        String jwtId = UUID.randomUUID().toString();
+
+        tokenRevocationStore.revoke(jwtId, new Date(System.currentTimeMillis() - 1_000));
+
+        assertThat(tokenRevocationStore.isRevoked(jwtId)).isFalse();
+    }
+
+    @Test
+    void isRevoked_unknownToken_fail() {
+        assertThat(tokenRevocationStore.isRevoked(UUID.randomUUID().toString())).isFalse();
+        assertThat(tokenRevocationStore.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void revokedAmong_mixedTokens_success() {
+        String revoked = UUID.randomUUID().toString();
+        String active = UUID.randomUUID().toString();
+
+        tokenRevocationStore.revoke(revoked, new Date(System.currentTimeMillis() + 60_000));
+
+        assertThat(tokenRevocationStore.revokedAmong(List.of(revoked, active))).containsExactly(revoked);
+        assertThat(tokenRevocationStore.revokedAmong(List.of())).isEmpty();
+        verify(invalidTokenRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void checkpoint_restart_loadsSnapshotAndDelta(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("revocations.snap");
+        InvalidTokenRepository repository = mock(InvalidTokenRepository.class);
+        Date exp = new Date(System.currentTimeMillis() + 60_000);
+
+        TokenRevocationStore before = new TokenRevocationStore(repository, new SimpleMeterRegistry(), snapshot.toString());
+        before.load();
+        before.revoke("checkpointed", exp);
+        before.revoke("expires soon", new Date(System.currentTimeMillis() + 1));
+        before.checkpoint();
+
+        when(repository.findByRevokedAtAfterAndExpAfter(any(), any())).thenReturn(List.of(
+                InvalidToken.builder().id("after checkpoint").exp(exp).revokedAt(new Date()).build()));
+
+        TokenRevocationStore after = new TokenRevocationStore(repository, new SimpleMeterRegistry(), snapshot.toString());
+        after.load();
+
+        assertThat(after.isRevoked("checkpointed")).isTrue();
+        assertThat(after.isRevoked("after checkpoint")).isTrue();
+        assertThat(after.isRevoked("never revoked")).isFalse();
+        // the full table scan is only done once, before the first checkpoint
+        verify(repository, times(1)).findByExpAfter(any());
+    }
+
+    @Test
+    void poll_revokedAfterStartup_loaded(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("revocations.snap");
+        InvalidTokenRepository repository = mock(InvalidTokenRepository.class);
+        Date exp = new Date(System.currentTimeMillis() + 60_000);
+
+        TokenRevocationStore store = new TokenRevocationStore(repository, new SimpleMeterRegistry(), snapshot.toString());
+        long startup = System.currentTimeMillis();
+        store.load();
+
+        // another instance revokes a token after this one started
+        when(repository.findByRevokedAtAfterAndExpAfter(any(), any())).thenReturn(List.of(
+                InvalidToken.builder().id("other instance").exp(exp).revokedAt(new Date()).build()));
+        assertThat(store.isRevoked("other instance")).isFalse();
+
+        long polled = System.currentTimeMillis();
+        store.scheduledCheckpoint();
+
+        assertThat(store.isRevoked("other instance")).isTrue();
+        // the poll starts where the startup load ended and the snapshot is stamped with the poll
+        verify(repository).findByRevokedAtAfterAndExpAfter(
+                argThat(since -> since.getTime() >= startup - TokenRevocationStore.CLOCK_SKEW_MILLIS
+                        && since.getTime() < polled - TokenRevocationStore.CLOCK_SKEW_MILLIS + 1),
+                any());
+        var written = RevocationSnapshotFile.read(snapshot);
+        assertThat(written.count()).isEqualTo(1);
+        assertThat(written.checkpointMillis()).isBetween(polled, System.currentTimeMillis());
+    }
+
+    @Test
+    void load_corruptSnapshot_fullLoad(@TempDir Path dir) throws Exception {
+        Path snapshot = dir.resolve("revocations.snap");
+        Files.write(snapshot, new byte[]{1, 2, 3});
+
+        InvalidTokenRepository repository = mock(InvalidTokenRepository.class);
+        when(repository.findByExpAfter(any())).thenReturn(List.of(InvalidToken.builder()
+                .id("from database")
+                .exp(new Date(System.currentTimeMillis() + 60_000))
+                .build()));
+
+        TokenRevocationStore store = new TokenRevocationStore(repository, new SimpleMeterRegistry(), snapshot.toString());
+        store.load();
+
+        assertThat(store.isRevoked("from database")).isTrue();
+        verify(repository, never()).findByRevokedAtAfterAndExpAfter(any(), any());
+    }
+}